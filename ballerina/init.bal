@@ -18,8 +18,11 @@ import ballerina/io;
 import ballerina/jballerina.java;
 
 function init() returns error? {
+    // Nothing is initialized after the first invalid configuration. The root logger is created last, and is
+    // assigned on every path of the module init.
+    Error? result = initConfigurations();
     rootLogger = new RootLogger();
-    check validateDestinations(destinations);
+    check result;
     setModule();
 
     // Register the global root logger in the registry
@@ -35,6 +38,29 @@ function init() returns error? {
     }
 }
 
+isolated function initConfigurations() returns Error? {
+    // The masking configurations are initialized first, since the root logger serializes its context
+    // key-values on creation
+    check toError(initMaskingPatterns(maskingPatterns));
+    initSensitiveKeys(sensitiveKeys);
+    initParallelMasking(parallelMaskingThreshold);
+    initSerializationLimits(serializationLimits);
+    check toError(initStackTraceDeduplication(stackTraceDeduplication));
+    check toError(initBinaryFormat(binaryFormat));
+    check validateDestinations(destinations);
+    check validateFormat(format, destinations);
+    check toError(initConsoleBuffer(consoleBuffer, format));
+    check toError(initShutdownFlush(shutdownFlushTimeout));
+    check installFileSync(destinations);
+}
+
+// Maps the error of a native initialization to a log:Error
+isolated function toError(error? result) returns Error? {
+    if result is error {
+        return error Error(result.message());
+    }
+}
+
 isolated function validateDestinations(OutputDestination[] destinations) returns Error? {
     if destinations.length() == 0 {
         return error("At least one log destination must be specified.");
@@ -51,12 +77,38 @@ isolated function validateDestinations(OutputDestination[] destinations) returns
             if result is error {
                 return error Error(string `Failed to clear the destination log file: '${destination.path}'`, result);
             }
+            // The binary log file starts a new segment, as the earlier one is gone
+            resetBinaryLog(destination.path);
         }
         // Validate rotation configuration if present
         RotationConfig? rotationConfig = destination.rotation;
         if rotationConfig is RotationConfig {
             check validateRotationConfig(rotationConfig);
         }
+        SyncConfig? syncConfig = destination.sync;
+        if syncConfig is SyncConfig {
+            check validateSyncConfig(syncConfig);
+        }
+    }
+}
+
+isolated function validateSyncConfig(SyncConfig config) returns Error? {
+    if (config.policy == INTERVAL && config.interval <= 0d) ||
+            (config.policy == EVERY_N_EVENTS && config.events <= 0) {
+        return error Error("Invalid sync configuration: interval and events should be positive");
+    }
+}
+
+// Installs the durability policies of the file destinations, once the logger is validated
+isolated function installFileSync(readonly & OutputDestination[] destinations) returns Error? {
+    return toError(initFileSync(destinations));
+}
+
+isolated function validateFormat(LogFormat format, OutputDestination[] destinations) returns Error? {
+    foreach OutputDestination destination in destinations {
+        if destination is StandardDestination && (destination.format ?: format) == BINARY {
+            return error Error("The binary log format is supported only with file destinations.");
+        }
     }
 }
 
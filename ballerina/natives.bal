@@ -16,7 +16,6 @@
 
 import ballerina/io;
 import ballerina/jballerina.java;
-import ballerina/lang.value;
 
 # Log level types.
 public enum Level {
@@ -95,7 +94,9 @@ public enum LogFormat {
     # The JSON log format.
     JSON_FORMAT = "json",
     # The Logfmt log format.
-    LOGFMT = "logfmt"
+    LOGFMT = "logfmt",
+    # The compact binary log format, which is decoded offline. Supported only with file destinations.
+    BINARY = "binary"
 };
 
 # Root logger default log format.
@@ -124,6 +125,10 @@ public enum DestinationType {
 public type StandardDestination record {|
     # Type of the standard destination. Allowed values are "stderr" and "stdout"
     readonly STDERR|STDOUT 'type = STDERR;
+    # Log level of the destination. Default is the level of the logger
+    Level level?;
+    # Log format of the destination. Default is the format of the logger
+    LogFormat format?;
 |};
 
 # File output modes.
@@ -162,6 +167,30 @@ public type RotationConfig record {|
     int maxBackupFiles = 10;
 |};
 
+# Durability policies for file destinations.
+public enum SyncPolicy {
+    # Leave writing the log events to the disk to the operating system
+    NONE = "NONE",
+    # Sync the log file to the disk periodically, if written since the last sync
+    INTERVAL = "INTERVAL",
+    # Sync the log file to the disk after every given number of log events
+    EVERY_N_EVENTS = "EVERY_N_EVENTS",
+    # Sync the log file to the disk after each log event at or above a given level
+    ON_LEVEL = "ON_LEVEL"
+};
+
+# Durability configuration for file destinations.
+public type SyncConfig record {|
+    # Sync policy to use
+    SyncPolicy policy = NONE;
+    # Interval in seconds between the syncs (used with the INTERVAL policy)
+    decimal interval = 1;
+    # Number of log events between the syncs (used with the EVERY_N_EVENTS policy)
+    int events = 100;
+    # Least severe level of the log events which are synced (used with the ON_LEVEL policy)
+    Level level = ERROR;
+|};
+
 // Defined as an open record to allow for future extensions
 # A file output destination.
 public type FileOutputDestination record {
@@ -173,6 +202,12 @@ public type FileOutputDestination record {
     FileOutputMode mode = APPEND;
     # Log rotation configuration
     RotationConfig rotation?;
+    # Durability configuration. By default, writing the log events to the disk is left to the operating system
+    SyncConfig sync?;
+    # Log level of the destination. Default is the level of the logger
+    Level level?;
+    # Log format of the destination. Default is the format of the logger
+    LogFormat format?;
 };
 
 # Log output destination.
@@ -181,6 +216,116 @@ public type OutputDestination StandardDestination|FileOutputDestination;
 # A list of file destinations or standard output/error.
 public configurable readonly & OutputDestination[] destinations = [{'type: STDERR}];
 
+# Limits applied while serializing the values of a log event. A negative value disables the limit.
+public type SerializationLimits record {|
+    # Maximum number of characters serialized from a string value. Longer strings are truncated and
+    # suffixed with `...`
+    int maxStringLength = -1;
+    # Maximum number of members serialized from a list, map or table value. The remaining members are
+    # replaced with a single `...` member
+    int maxCollectionElements = -1;
+    # Maximum nesting depth of the structured values. Values nested deeper are replaced with `...`
+    int maxDepth = -1;
+    # Maximum number of characters of a log event. The remaining fields are dropped once the limit is
+    # reached
+    int maxEventSize = -1;
+|};
+
+# Limits applied while serializing the log events. All the limits are disabled by default.
+public configurable readonly & SerializationLimits serializationLimits = {};
+
+final boolean hasSerializationLimits = serializationLimits.maxStringLength >= 0 ||
+    serializationLimits.maxCollectionElements >= 0 || serializationLimits.maxDepth >= 0 ||
+    serializationLimits.maxEventSize >= 0;
+
+# Configuration for the deduplication of the stack traces of the logged errors.
+public type StackTraceDeduplicationConfig record {|
+    # Enable writing a repeated stack trace as a reference (`stackTraceId`) to the stack trace written earlier
+    boolean enabled = false;
+    # Time window in seconds. A stack trace is written in full once in each window, and after each log rotation
+    int window = 60;
+    # Maximum number of distinct stack traces tracked. The least recently logged ones are forgotten first
+    int maxEntries = 1024;
+|};
+
+# Deduplication of the stack traces of the logged errors. Disabled by default.
+public configurable readonly & StackTraceDeduplicationConfig stackTraceDeduplication = {};
+
+# Configuration for the binary log format.
+public type BinaryFormatConfig record {|
+    # Enable writing each distinct message template once per log file, and only its ID and the insertions in
+    # the log events. Not applied when the masking patterns are configured and the sensitive data masking is enabled
+    boolean internMessages = false;
+    # Maximum number of message templates interned per log file. The messages of the other templates are
+    # written in full
+    int maxInternedMessages = 1024;
+|};
+
+# Configuration for the binary log format.
+public configurable readonly & BinaryFormatConfig binaryFormat = {};
+
+# Policies applied when the next log event does not fit in a buffer.
+public enum BackpressurePolicy {
+    # Wait for the buffer to be written
+    BLOCK,
+    # Drop the log event
+    DROP_NEWEST,
+    # Drop the oldest buffered log events
+    DROP_OLDEST,
+    # Drop the log events below the `dropBelowLevel`, the log event first and then the oldest buffered ones. The
+    # other log events wait for the buffer to be written
+    DROP_BELOW_LEVEL
+}
+
+# Configuration for buffering the log output to the standard output and the standard error.
+public type ConsoleBufferConfig record {|
+    # Enable writing the log events to the standard output and the standard error through bounded buffers
+    boolean enabled = false;
+    # Size of each buffer in bytes. A buffer is flushed when the next log event does not fit in it
+    int bufferSize = 65536;
+    # Keep the buffered log events in a pre-allocated off-heap arena of `bufferSize` bytes per buffer, instead of
+    # on the heap
+    boolean offHeap = false;
+    # Size in bytes of the segments of the off-heap arena. A log event longer than a segment is not buffered
+    int segmentSize = 4096;
+    # Number of the stripes of each buffer, each with an equal share of the `bufferSize`. The logging threads are
+    # spread to the stripes, so that many strands logging at once do not contend for a single buffer
+    int stripes = 1;
+    # Write each buffer straight to the file descriptor of the standard output or the standard error, with a single
+    # gathering write of the buffered log events instead of copying them into one contiguous buffer first
+    boolean gatheringWrites = false;
+    # Maximum time in seconds a log event stays in a buffer. The buffers are also flushed on each ERROR log event
+    # and when the program exits
+    decimal flushInterval = 0.2;
+    # Policy applied when the next log event does not fit in a buffer
+    BackpressurePolicy backpressurePolicy = BLOCK;
+    # Least severe level which is never dropped by the `DROP_BELOW_LEVEL` policy
+    Level dropBelowLevel = WARN;
+    # Interval in seconds of the log lines which summarize the number of the dropped log events per level
+    decimal dropSummaryInterval = 10;
+    # Queue the log events at or above the `priorityLevel` apart from the less severe log events, and write them
+    # right away, ahead of the less severe log events buffered earlier
+    boolean priorityLane = false;
+    # Least severe level of the log events in the priority lane
+    Level priorityLevel = WARN;
+|};
+
+# Buffering of the log output to the standard output and the standard error. Disabled by default.
+public configurable readonly & ConsoleBufferConfig consoleBuffer = {};
+
+# Occupancy of the buffer of a standard destination.
+public type ConsoleBufferOccupancy record {|
+    # Capacity of the buffer in bytes
+    int capacity;
+    # Number of bytes of the buffer in use by the buffered log events. With the off-heap arena, the segments in
+    # use are counted in full
+    int used;
+|};
+
+# Maximum time in seconds the exit of the program waits for the buffered log events to be written out and for the
+# log files to be synced to the disk.
+public configurable decimal shutdownFlushTimeout = 5;
+
 type LogRecord record {
     string time;
     string level;
@@ -237,26 +382,14 @@ public isolated function processTemplate(PrintableRawTemplate template) returns
 # + template - The raw template to be evaluated
 # + enableSensitiveDataMasking - Flag to indicate if sensitive data masking is enabled
 # + return - The evaluated string
-public isolated function evaluateTemplate(PrintableRawTemplate template, boolean enableSensitiveDataMasking = false) returns string {
-    string[] templateStrings = template.strings;
-    Value[] insertions = template.insertions;
-    string result = templateStrings[0];
+public isolated function evaluateTemplate(PrintableRawTemplate template, boolean enableSensitiveDataMasking = false)
+        returns string = @java:Method {'class: "io.ballerina.stdlib.log.Utils"} external;
 
-    foreach int i in 1 ..< templateStrings.length() {
-        Value insertion = insertions[i - 1];
-        string insertionStr = insertion is PrintableRawTemplate ?
-            evaluateTemplate(insertion, enableSensitiveDataMasking) :
-                insertion is Valuer ?
-                (enableSensitiveDataMasking ? toMaskedString(insertion()) : insertion().toString()) :
-                (enableSensitiveDataMasking ? toMaskedString(insertion) : insertion.toString());
-        result += insertionStr + templateStrings[i];
-    }
-    return result;
+isolated function processMessage(string|PrintableRawTemplate msg, boolean enableSensitiveDataMasking) returns string {
+    string message = msg !is string ? evaluateTemplate(msg, enableSensitiveDataMasking) : msg;
+    return enableSensitiveDataMasking && hasMaskingPatterns ? maskPatterns(message) : message;
 }
 
-isolated function processMessage(string|PrintableRawTemplate msg, boolean enableSensitiveDataMasking) returns string =>
-    msg !is string ? evaluateTemplate(msg, enableSensitiveDataMasking) : msg;
-
 # Prints debug logs.
 # ```ballerina
 # log:printDebug("debug message", id = 845315)
@@ -315,6 +448,91 @@ public isolated function printWarn(string|PrintableRawTemplate msg, error? 'erro
     rootLogger.print(WARN, moduleName, msg, 'error, stackTrace, keyValues);
 }
 
+# Adds key-values to the logging context of the current strand. The key-values are added to all the log events
+# printed by the current strand, and by the strands it starts afterwards, irrespective of the logger in use.
+# The key-values of the strand take precedence over the context key-values of the logger, while the key-values
+# given when printing take precedence over the key-values of the strand.
+# ```ballerina
+# log:putContext(requestId = "req-123");
+# ```
+#
+# + keyValues - The key-value pairs to be added
+public isolated function putContext(*KeyValues keyValues) {
+    (readonly & KeyValues)? context = getStrandContext();
+    if context is () {
+        setStrandContext(keyValues.cloneReadOnly());
+        return;
+    }
+    // The context is replaced instead of updated, as it may be held by the log events in progress and the scopes
+    // to be restored
+    KeyValues newContext = {...context};
+    foreach [string, Value] [k, v] in keyValues.entries() {
+        newContext[k] = v;
+    }
+    setStrandContext(newContext.cloneReadOnly());
+}
+
+# Runs the given function with key-values added to the logging context of the current strand. The logging
+# context is restored once the function returns or panics. The strands started by the function do not share the
+# scope, and should pass the key-values on, e.g. by calling this function themselves.
+# ```ballerina
+# check log:withContextScope(isolated function() returns error? {
+#     log:printInfo("processing request");
+# }, requestId = "req-123");
+# ```
+#
+# + func - The function to be run
+# + keyValues - The key-value pairs to be added for the duration of the function
+# + return - The error returned by the function, if any
+public isolated function withContextScope(isolated function () returns error? func, *KeyValues keyValues)
+        returns error? {
+    (readonly & KeyValues)? context = getStrandContext();
+    putContext(keyValues);
+    // The context is restored before a panic of the function is propagated, so that the key-values do not leak
+    // into the later log events of the strand
+    [error?]|error result = trap callInContextScope(func);
+    setStrandContext(context);
+    if result is error {
+        panic result;
+    }
+    return result[0];
+}
+
+// Wraps the result of the function, so that a returned error is not taken for a panic when trapped
+isolated function callInContextScope(isolated function () returns error? func) returns [error?] {
+    return [func()];
+}
+
+# Returns the occupancy of the buffer of a standard destination, to be reported as a metric.
+# ```ballerina
+# log:ConsoleBufferOccupancy? occupancy = log:getConsoleBufferOccupancy(log:STDOUT);
+# ```
+#
+# + 'type - The type of the standard destination
+# + return - The occupancy of the buffer, or `()` if the console buffering is not enabled
+public isolated function getConsoleBufferOccupancy(STDERR|STDOUT 'type = STDERR) returns ConsoleBufferOccupancy? {
+    int capacity = getConsoleBufferCapacity('type == STDERR);
+    if capacity == 0 {
+        return ();
+    }
+    return {capacity, used: getConsoleBufferUsage('type == STDERR)};
+}
+
+# Writes out the buffered log events and syncs the log files to the disk. The same is done when the program
+# exits, including on a panic, within the `shutdownFlushTimeout`.
+# ```ballerina
+# check log:flushLogs(2);
+# ```
+#
+# + timeout - The maximum time in seconds to wait for the flush
+# + return - A `log:Error` if the flush did not complete within the timeout
+public isolated function flushLogs(decimal timeout = 5) returns Error? {
+    error? result = flushLogsNative(timeout);
+    if result is error {
+        return error Error(result.message());
+    }
+}
+
 # Sets the log output to a file. All subsequent logs of the entire application will be written to this file.
 # ```ballerina
 # var result = log:setOutputFile("./resources/myfile.log");
@@ -342,6 +560,7 @@ public isolated function setOutputFile(string path, FileWriteOption option = APP
         if result is error {
             return error Error("Failed to set log output file", result);
         }
+        resetBinaryLog(path);
     }
     lock {
         outputFilePath = path;
@@ -358,7 +577,9 @@ type StackFrame record {|
 type ErrorDetail record {|
     json|string message;
     json|string detail;
-    StackFrame[] stackTrace;
+    // Omitted when the stack trace has already been written, in which case the ID refers to it
+    StackFrame[] stackTrace?;
+    string stackTraceId?;
 |};
 
 type FullErrorDetails record {|
@@ -371,11 +592,30 @@ isolated function getFullErrorDetails(error err) returns FullErrorDetails {
     error? errCause = err.cause();
 
     while errCause != () {
-        causes.push({message: parseErrorMessage(errCause.message()), stackTrace: parseStackTrace(errCause.stackTrace()), detail: parseErrorDetail(errCause.detail())});
+        causes.push(getErrorDetail(errCause));
         errCause = errCause.cause();
     }
 
-    return {message: parseErrorMessage(err.message()), stackTrace: parseStackTrace(err.stackTrace()), detail: parseErrorDetail(err.detail()), causes};
+    // The stack traces already written to an output are replaced by their IDs per output, by getOutputRecord
+    return {...getErrorDetail(err), causes};
+}
+
+// Errors are immutable, so the details of an error are parsed once and shared by all its log events
+isolated function getErrorDetail(error err) returns ErrorDetail {
+    (readonly & ErrorDetail)? cached = getCachedErrorDetail(err);
+    if cached is readonly & ErrorDetail {
+        return cached;
+    }
+    StackFrame[] stackTrace = parseStackTrace(err.stackTrace());
+    ErrorDetail errorDetail = {
+        message: parseErrorMessage(err.message()),
+        stackTrace,
+        detail: parseErrorDetail(err.detail())
+    };
+    if stackTraceDeduplication.enabled {
+        errorDetail.stackTraceId = getStackTraceId(stackTrace);
+    }
+    return cacheErrorDetail(err, errorDetail.cloneReadOnly());
 }
 
 isolated function parseStackTrace(error:StackFrame[] stackTrace) returns StackFrame[] {
@@ -393,35 +633,42 @@ isolated function parseStackTrace(error:StackFrame[] stackTrace) returns StackFr
     return stackFrames;
 }
 
-isolated function parseErrorMessage(string message) returns json|string {
-    json|error errMessage = value:fromJsonString(message);
-    if errMessage is json {
-        return errMessage;
-    } else {
-        return message;
-    }
-}
+isolated function parseErrorMessage(string message) returns json|string = @java:Method {'class: "io.ballerina.stdlib.log.ErrorDetails"} external;
+
+isolated function initStackTraceDeduplication(readonly & StackTraceDeduplicationConfig config) returns error? = @java:Method {'class: "io.ballerina.stdlib.log.StackTraceDeduplicator"} external;
+
+isolated function getStackTraceId(StackFrame[] stackTrace) returns string = @java:Method {'class: "io.ballerina.stdlib.log.StackTraceDeduplicator"} external;
+
+isolated function isFirstOccurrence(string output, string stackTraceId) returns boolean = @java:Method {'class: "io.ballerina.stdlib.log.StackTraceDeduplicator"} external;
+
+isolated function getCachedErrorDetail(error err) returns (readonly & ErrorDetail)? = @java:Method {'class: "io.ballerina.stdlib.log.ErrorDetails"} external;
+
+isolated function cacheErrorDetail(error err, readonly & ErrorDetail errorDetail) returns readonly & ErrorDetail = @java:Method {'class: "io.ballerina.stdlib.log.ErrorDetails"} external;
 
 isolated function parseErrorDetail(error:Detail detail) returns json|string {
     return detail is anydata ? detail.toJson() : detail.toBalString();
 }
 
-isolated function fileWrite(string logOutput) {
-    string output = logOutput;
+isolated function fileWrite(handle output, string level) {
     string? path = ();
     lock {
         path = outputFilePath;
         if path is string {
-            io:Error? result = io:fileWriteString(path, output + "\n", io:APPEND);
+            error? result = writeLogOutput(path, output, level);
             if result is error {
-                printError("failed to write log output to the file", 'error = result);
+                printError(result.message());
             }
         }
     }
 }
 
 isolated function printLogFmt(LogRecord logRecord, boolean enableSensitiveDataMasking = false) returns string {
+    if enableSensitiveDataMasking {
+        // Masks, escapes and assembles all the fields in a single pass
+        return toMaskedLogFmtString(logRecord);
+    }
     string message = "";
+    int maxEventSize = serializationLimits.maxEventSize;
     foreach [string, anydata] [k, v] in logRecord.entries() {
         string value;
         match k {
@@ -438,12 +685,15 @@ isolated function printLogFmt(LogRecord logRecord, boolean enableSensitiveDataMa
                 value = v.toBalString();
             }
             _ => {
-                string strValue = enableSensitiveDataMasking ? toMaskedString(v) : v.toString();
+                string strValue = hasSerializationLimits ? toBoundedString(v, false) : v.toString();
                 value = v is string ? string `${escape(strValue)}` : strValue;
             }
         }
         if message == "" {
             message = message + string `${k}=${value}`;
+        } else if maxEventSize >= 0 && message.length() >= maxEventSize {
+            message = message + " ...";
+            break;
         } else {
             message = message + string ` ${k}=${value}`;
         }
@@ -490,6 +740,69 @@ isolated function getInvokedModuleName(int offset = 0) returns string = @java:Me
 
 isolated function getCurrentTime() returns string = @java:Method {'class: "io.ballerina.stdlib.log.Utils"} external;
 
+isolated function initSerializationLimits(readonly & SerializationLimits limits) = @java:Method {
+    'class: "io.ballerina.stdlib.log.SerializationLimits"
+} external;
+
+isolated function toBoundedJsonString(LogRecord logRecord, boolean enableSensitiveDataMasking) returns string = @java:Method {'class: "io.ballerina.stdlib.log.Utils"} external;
+
+isolated function toMaskedLogFmtString(LogRecord logRecord) returns string = @java:Method {'class: "io.ballerina.stdlib.log.Utils"} external;
+
+isolated function encodeLogOutput(string logOutput) returns handle = @java:Method {'class: "io.ballerina.stdlib.log.LogFileWriter"} external;
+
+isolated function writeLogOutput(string filePath, handle output, string level) returns error? = @java:Method {'class: "io.ballerina.stdlib.log.LogFileWriter"} external;
+
+isolated function initFileSync(readonly & OutputDestination[] destinations) returns error? = @java:Method {'class: "io.ballerina.stdlib.log.FileSync"} external;
+
+isolated function initConsoleBuffer(readonly & ConsoleBufferConfig config, LogFormat format) returns error? = @java:Method {'class: "io.ballerina.stdlib.log.ConsoleWriter"} external;
+
+isolated function writeToConsole(handle output, boolean toStderr, string level) = @java:Method {'class: "io.ballerina.stdlib.log.ConsoleWriter"} external;
+
+isolated function initShutdownFlush(decimal timeout) returns error? = @java:Method {'class: "io.ballerina.stdlib.log.LogFlusher"} external;
+
+isolated function flushLogsNative(decimal timeout) returns error? = @java:Method {
+    name: "flushLogs",
+    'class: "io.ballerina.stdlib.log.LogFlusher"
+} external;
+
+isolated function getConsoleBufferCapacity(boolean toStderr) returns int = @java:Method {'class: "io.ballerina.stdlib.log.ConsoleWriter"} external;
+
+isolated function getConsoleBufferUsage(boolean toStderr) returns int = @java:Method {'class: "io.ballerina.stdlib.log.ConsoleWriter"} external;
+
+isolated function initBinaryFormat(readonly & BinaryFormatConfig config) returns error? = @java:Method {'class: "io.ballerina.stdlib.log.BinaryLogWriter"} external;
+
+isolated function prepareBinaryMessage(string|PrintableRawTemplate msg, boolean enableSensitiveDataMasking)
+    returns handle = @java:Method {'class: "io.ballerina.stdlib.log.BinaryLogWriter"} external;
+
+isolated function writeBinaryLog(string filePath, LogRecord logRecord, handle message,
+        boolean enableSensitiveDataMasking) returns error? = @java:Method {'class: "io.ballerina.stdlib.log.BinaryLogWriter"} external;
+
+isolated function resetBinaryLog(string filePath) = @java:Method {'class: "io.ballerina.stdlib.log.BinaryLogWriter"} external;
+
+isolated function createLogContext(readonly & KeyValues keyValues, LogFormat format,
+        boolean enableSensitiveDataMasking) returns handle = @java:Method {'class: "io.ballerina.stdlib.log.LogContext"} external;
+
+isolated function extendLogContext(handle parent, readonly & KeyValues keyValues) returns handle = @java:Method {'class: "io.ballerina.stdlib.log.LogContext"} external;
+
+isolated function isLogContextPrepared(handle context) returns boolean = @java:Method {'class: "io.ballerina.stdlib.log.LogContext"} external;
+
+isolated function mergeLogContext(KeyValues keyValues, handle context) = @java:Method {'class: "io.ballerina.stdlib.log.LogContext"} external;
+
+isolated function getLogContextValue(handle context, string key) returns Value = @java:Method {'class: "io.ballerina.stdlib.log.LogContext"} external;
+
+isolated function getStrandContext() returns (readonly & KeyValues)? = @java:Method {'class: "io.ballerina.stdlib.log.StrandContext"} external;
+
+isolated function setStrandContext((readonly & KeyValues)? context) = @java:Method {'class: "io.ballerina.stdlib.log.StrandContext"} external;
+
+isolated function getCachedObservabilityKeyValues(readonly & map<string> noObserverContext) returns (readonly & map<string>)? = @java:Method {'class: "io.ballerina.stdlib.log.SpanContextCache"} external;
+
+isolated function cacheObservabilityKeyValues(readonly & map<string> keyValues) returns readonly & map<string> = @java:Method {'class: "io.ballerina.stdlib.log.SpanContextCache"} external;
+
+isolated function formatWithContext(LogRecord logRecord, map<anydata> callSiteKeyValues, map<anydata> trailingKeyValues,
+        handle context) returns string = @java:Method {'class: "io.ballerina.stdlib.log.LogContext"} external;
+
+isolated function toBoundedString(anydata value, boolean enableSensitiveDataMasking) returns string = @java:Method {'class: "io.ballerina.stdlib.log.Utils"} external;
+
 isolated function getCurrentFileSize(string filePath) returns int = @java:Method {'class: "io.ballerina.stdlib.log.Utils"} external;
 
 isolated function getTimeSinceLastRotation(string filePath, string policy, int maxFileSize, int maxAgeInMillis, int maxBackupFiles) returns int = @java:Method {'class: "io.ballerina.stdlib.log.Utils"} external;
@@ -45,6 +45,12 @@ type ConfigInternal record {|
 |};
 
 final string ICP_RUNTIME_ID_KEY = "icp.runtimeId";
+// The observability configuration does not change while the program runs
+final boolean tracingEnabled = observe:isTracingEnabled();
+final boolean observabilityEnabled = observe:isObservabilityEnabled();
+final readonly & map<string> NO_OBSERVABILITY_KEY_VALUES = {};
+// The output of the stack trace deduplication for the console destinations, which cannot be a log file path
+const CONSOLE_OUTPUT = "";
 
 final RootLogger rootLogger;
 
@@ -100,6 +106,7 @@ public isolated function root() returns Logger => rootLogger;
 # + return - The newly created logger
 public isolated function fromConfig(*Config config) returns Logger|Error {
     check validateDestinations(config.destinations);
+    check validateFormat(config.format, config.destinations);
     // Copy the initial context from the global configs
     // Only the key value pair
     AnydataKeyValues newKeyValues = {...keyValues};
@@ -120,19 +127,22 @@ public isolated function fromConfig(*Config config) returns Logger|Error {
         // getInvokedModuleName(3): skip getInvokedModuleName -> fromConfig -> caller
         string moduleName = getInvokedModuleName(3);
         string loggerId = moduleName.length() > 0 ? moduleName + ":" + <string>config.id : <string>config.id;
-        RootLogger logger = new RootLogger(newConfig, loggerId);
         lock {
             if loggerRegistry.hasKey(loggerId) {
                 return error Error("Logger with ID '" + loggerId + "' already exists");
             }
+            // The durability policies are installed only for a logger which is created
+            check installFileSync(newConfig.destinations);
+            RootLogger logger = new RootLogger(newConfig, loggerId);
             loggerRegistry[loggerId] = logger;
+            return logger;
         }
-        return logger;
     }
 
     // No user ID — auto-generate a readable ID and guarantee uniqueness inside the lock.
     // Stack offset 4: skip generateLoggerId (Java) -> generateLoggerIdNative -> fromConfig -> caller
     string baseId = generateLoggerIdNative(4);
+    check installFileSync(newConfig.destinations);
     lock {
         string loggerId = baseId;
         int suffix = 2;
@@ -156,6 +166,13 @@ isolated class RootLogger {
     private final boolean enableSensitiveDataMasking;
     // Unique ID for loggers registered with LogConfigManager
     private final string? loggerId;
+    // Context key-values serialized once, to be spliced into each log event and shared with the child loggers
+    private final handle context;
+    private final boolean spliceContext;
+    // Whether all the destinations use the log format of the logger
+    private final boolean uniformFormat;
+    // The most verbose level among the levels of the destinations, if any of the destinations has a level
+    private final Level? destinationLevel;
 
     public isolated function init(Config|ConfigInternal config = <Config>{}, string? loggerId = ()) {
         self.format = config.format;
@@ -164,6 +181,12 @@ isolated class RootLogger {
         self.keyValues = config.keyValues;
         self.enableSensitiveDataMasking = config.enableSensitiveDataMasking;
         self.loggerId = loggerId;
+        self.context = createLogContext(config.keyValues, config.format, config.enableSensitiveDataMasking);
+        self.uniformFormat = hasUniformFormat(config.format, config.destinations);
+        self.destinationLevel = getDestinationLevel(config.destinations);
+        // An empty context is cheaper to merge than to splice
+        self.spliceContext = config.keyValues.length() > 0 && isLogContextPrepared(self.context) &&
+                self.uniformFormat;
     }
 
     public isolated function printDebug(string|PrintableRawTemplate msg, error? 'error, error:StackFrame[]? stackTrace, *KeyValues keyValues) {
@@ -187,11 +210,7 @@ isolated class RootLogger {
     }
 
     public isolated function withContext(*KeyValues keyValues) returns Logger {
-        KeyValues newKeyValues = {...self.keyValues};
-        foreach [string, Value] [k, v] in keyValues.entries() {
-            newKeyValues[k] = v;
-        }
-        return new ChildLogger(self, newKeyValues.cloneReadOnly());
+        return new ChildLogger(self, extendLogContext(self.context, keyValues.cloneReadOnly()));
     }
 
     public isolated function getLevel() returns Level {
@@ -207,6 +226,43 @@ isolated class RootLogger {
     }
 
     isolated function print(string logLevel, string moduleName, string|PrintableRawTemplate msg, error? err = (), error:StackFrame[]? stackTrace = (), *KeyValues keyValues) {
+        boolean levelEnabled = self.isEnabled(logLevel, moduleName);
+        if !levelEnabled && !self.isDestinationLevelEnabled(logLevel) {
+            return;
+        }
+        printLog(logLevel, moduleName, msg, self.format, self.destinations, self.keyValues,
+                self.enableSensitiveDataMasking, err, stackTrace, keyValues, self.spliceContext ? self.context : (),
+                false, levelEnabled);
+    }
+
+    // Prints a log event of a child logger with the prepared context of the child logger
+    isolated function printWithContext(string logLevel, string moduleName, string|PrintableRawTemplate msg,
+            error? err, error:StackFrame[]? stackTrace, KeyValues keyValues, handle context) {
+        boolean levelEnabled = self.isEnabled(logLevel, moduleName);
+        if !levelEnabled && !self.isDestinationLevelEnabled(logLevel) {
+            return;
+        }
+        printLog(logLevel, moduleName, msg, self.format, self.destinations, self.keyValues,
+                self.enableSensitiveDataMasking, err, stackTrace, keyValues, context, true, levelEnabled);
+    }
+
+    // Prints a log event of a child logger with the context of the child logger, which is not prepared
+    isolated function printWithMergedContext(string logLevel, string moduleName, string|PrintableRawTemplate msg,
+            error? err, error:StackFrame[]? stackTrace, KeyValues keyValues, handle context) {
+        boolean levelEnabled = self.isEnabled(logLevel, moduleName);
+        if !levelEnabled && !self.isDestinationLevelEnabled(logLevel) {
+            return;
+        }
+        printLog(logLevel, moduleName, msg, self.format, self.destinations, self.keyValues,
+                self.enableSensitiveDataMasking, err, stackTrace, keyValues, (), true, levelEnabled, context);
+    }
+
+    // Whether the context of the child loggers can be spliced into the log events
+    isolated function hasUniformFormat() returns boolean {
+        return self.uniformFormat;
+    }
+
+    private isolated function isEnabled(string logLevel, string moduleName) returns boolean {
         Level effectiveLevel = self.getLevel();
         if moduleName.length() > 0 {
             Level? moduleLevel = getModuleLevelNative(moduleName);
@@ -214,67 +270,54 @@ isolated class RootLogger {
                 effectiveLevel = moduleLevel;
             }
         }
-        if !isLevelEnabled(effectiveLevel, logLevel) {
-            return;
-        }
-        printLog(logLevel, moduleName, msg, self.format, self.destinations, self.keyValues,
-                self.enableSensitiveDataMasking, err, stackTrace, keyValues);
+        return isLevelEnabled(effectiveLevel, logLevel);
+    }
+
+    // The destinations with a level of their own are gated by the most verbose of those levels
+    private isolated function isDestinationLevelEnabled(string logLevel) returns boolean {
+        Level? destinationLevel = self.destinationLevel;
+        return destinationLevel is Level && isLevelEnabled(destinationLevel, logLevel);
     }
 }
 
 isolated class ChildLogger {
     *Logger;
 
-    private final Logger parent;
-    private final readonly & KeyValues keyValues;
+    // Child loggers of child loggers are flattened to the root logger, as the context holds the key-values of all
+    // the ancestors
+    private final RootLogger root;
+    // Context key-values sharing the context of the parent logger, serialized in advance if prepared
+    private final handle context;
+    private final boolean prepared;
 
-    public isolated function init(Logger parent, readonly & KeyValues keyValues) {
-        self.parent = parent;
-        self.keyValues = keyValues;
+    public isolated function init(RootLogger root, handle context) {
+        self.root = root;
+        self.context = context;
+        self.prepared = root.hasUniformFormat() && isLogContextPrepared(context);
     }
 
     public isolated function printDebug(string|PrintableRawTemplate msg, error? 'error, error:StackFrame[]? stackTrace, *KeyValues keyValues) {
-        KeyValues merged = self.mergeKeyValues(keyValues);
-        if !merged.hasKey("module") {
-             merged["module"] = getInvokedModuleName(2);
-        }
-        self.parent.printDebug(msg, 'error, stackTrace, merged);
+        self.print(DEBUG, msg, 'error, stackTrace, keyValues);
     }
 
     public isolated function printError(string|PrintableRawTemplate msg, error? 'error, error:StackFrame[]? stackTrace, *KeyValues keyValues) {
-        KeyValues merged = self.mergeKeyValues(keyValues);
-        if !merged.hasKey("module") {
-             merged["module"] = getInvokedModuleName(2);
-        }
-        self.parent.printError(msg, 'error, stackTrace, merged);
+        self.print(ERROR, msg, 'error, stackTrace, keyValues);
     }
 
     public isolated function printInfo(string|PrintableRawTemplate msg, error? 'error, error:StackFrame[]? stackTrace, *KeyValues keyValues) {
-        KeyValues merged = self.mergeKeyValues(keyValues);
-        if !merged.hasKey("module") {
-             merged["module"] = getInvokedModuleName(2);
-        }
-        self.parent.printInfo(msg, 'error, stackTrace, merged);
+        self.print(INFO, msg, 'error, stackTrace, keyValues);
     }
 
     public isolated function printWarn(string|PrintableRawTemplate msg, error? 'error, error:StackFrame[]? stackTrace, *KeyValues keyValues) {
-        KeyValues merged = self.mergeKeyValues(keyValues);
-        if !merged.hasKey("module") {
-             merged["module"] = getInvokedModuleName(2);
-        }
-        self.parent.printWarn(msg, 'error, stackTrace, merged);
+        self.print(WARN, msg, 'error, stackTrace, keyValues);
     }
 
     public isolated function withContext(*KeyValues keyValues) returns Logger {
-        KeyValues newKeyValues = {...self.keyValues};
-        foreach [string, Value] [k, v] in keyValues.entries() {
-            newKeyValues[k] = v;
-        }
-        return new ChildLogger(self, newKeyValues.cloneReadOnly());
+        return new ChildLogger(self.root, extendLogContext(self.context, keyValues.cloneReadOnly()));
     }
 
     public isolated function getLevel() returns Level {
-        return self.parent.getLevel();
+        return self.root.getLevel();
     }
 
     public isolated function setLevel(Level level) returns error? {
@@ -282,33 +325,33 @@ isolated class ChildLogger {
                 "Child loggers inherit their level from the parent logger.");
     }
 
-    private isolated function mergeKeyValues(KeyValues callSiteKeyValues) returns KeyValues {
-        KeyValues merged = {};
-        foreach [string, Value] [k, v] in callSiteKeyValues.entries() {
-            merged[k] = v;
-        }
-        foreach [string, Value] [k, v] in self.keyValues.entries() {
-            if !merged.hasKey(k) {
-                merged[k] = v;
-            }
-        }
-        string? runtimeId = observe:getTagValue(ICP_RUNTIME_ID_KEY);
-        if runtimeId is string {
-            merged[ICP_RUNTIME_ID_KEY] = runtimeId;
+    private isolated function print(string logLevel, string|PrintableRawTemplate msg, error? err,
+            error:StackFrame[]? stackTrace, KeyValues keyValues) {
+        if self.prepared {
+            // The prepared context never has a module key-value
+            self.root.printWithContext(logLevel, getModuleName(keyValues, 4), msg, err, stackTrace, keyValues,
+                    self.context);
+            return;
         }
-        return merged;
+        // The context is merged into the log event along with the strand context
+        Value module = keyValues["module"] ?: getLogContextValue(self.context, "module");
+        string moduleName = module is () ? getInvokedModuleName(3) : (module is string ? module : "");
+        self.root.printWithMergedContext(logLevel, moduleName, msg, err, stackTrace, keyValues, self.context);
     }
 }
 
 isolated function printLog(string logLevel, string moduleName, string|PrintableRawTemplate msg,
         LogFormat format, readonly & OutputDestination[] destinations, readonly & KeyValues contextKeyValues,
         boolean enableSensitiveDataMasking, error? err = (), error:StackFrame[]? stackTrace = (),
-        KeyValues callSiteKeyValues = {}) {
+        KeyValues callSiteKeyValues = {}, handle? context = (), boolean childLogger = false,
+        boolean levelEnabled = true, handle? mergedContext = ()) {
+    // The binary log events are encoded from the message itself, which is evaluated natively
+    boolean textOutput = hasTextOutput(format, destinations);
     LogRecord logRecord = {
         time: getCurrentTime(),
         level: logLevel,
         module: moduleName,
-        message: processMessage(msg, enableSensitiveDataMasking)
+        message: textOutput ? processMessage(msg, enableSensitiveDataMasking) : ""
     };
     if err is error {
         logRecord.'error = getFullErrorDetails(err);
@@ -317,64 +360,318 @@ isolated function printLog(string logLevel, string moduleName, string|PrintableR
         logRecord["stackTrace"] = from var element in stackTrace
             select element.toString();
     }
-    // Apply in ascending priority order: context < call-site < tracing/observe.
-    // For child loggers, contextKeyValues is the parent's own context; callSiteKeyValues
-    // carries the already-merged {child context + call-site} result, so child wins over parent.
-    foreach [string, Value] [k, v] in contextKeyValues.entries() {
-        logRecord[k] = v is Valuer ? v() :
-            (v is PrintableRawTemplate ? evaluateTemplate(v, enableSensitiveDataMasking) : v);
-    }
-    foreach [string, Value] [k, v] in callSiteKeyValues.entries() {
-        logRecord[k] = v is Valuer ? v() :
-            (v is PrintableRawTemplate ? evaluateTemplate(v, enableSensitiveDataMasking) : v);
-    }
-    if observe:isTracingEnabled() {
-        map<string> spanContext = observe:getSpanContext();
-        foreach [string, string] [k, v] in spanContext.entries() {
-            logRecord[k] = v;
+    // The key-values of the strand come before the call-site key-values, which take precedence over them. This is
+    // the only place where the strand context is merged, for the root loggers and the child loggers alike
+    KeyValues eventKeyValues = callSiteKeyValues;
+    (readonly & KeyValues)? strandContext = getStrandContext();
+    if strandContext is readonly & KeyValues {
+        eventKeyValues = {...strandContext};
+        foreach [string, Value] [k, v] in callSiteKeyValues.entries() {
+            eventKeyValues[k] = v;
         }
     }
-    if observe:isObservabilityEnabled() {
-        string? runtimeId = observe:getTagValue(ICP_RUNTIME_ID_KEY);
-        if runtimeId is string {
-            logRecord[ICP_RUNTIME_ID_KEY] = runtimeId;
+    if mergedContext is handle {
+        // The context of a child logger, which is not prepared, is added after the strand context, which takes
+        // precedence over it
+        if strandContext is () {
+            eventKeyValues = {...callSiteKeyValues};
         }
+        mergeLogContext(eventKeyValues, mergedContext);
+        addRuntimeId(eventKeyValues);
+    }
+    // The log output is formatted lazily, once per log format and stack trace variant needed by the destinations,
+    // and encoded once for all the files and the console buffers of the log format
+    EventOutputs outputs = {};
+    if context is handle {
+        // The context key-values are serialized in advance and spliced in natively
+        map<anydata> callSite = {};
+        foreach [string, Value] [k, v] in eventKeyValues.entries() {
+            anydata value = evaluateKeyValue(v, enableSensitiveDataMasking);
+            if k == "module" {
+                logRecord[k] = value;
+            } else {
+                callSite[k] = value;
+            }
+        }
+        map<anydata> trailing = {};
+        if childLogger {
+            // Child loggers add the runtime ID along with their context key-values
+            addRuntimeId(trailing);
+        }
+        addObservabilityKeyValues(trailing);
+        // The context is spliced only when all the destinations use the log format of the logger
+        outputs.spliced = {callSite, trailing, context};
+    } else {
+        // Apply in ascending priority order: context < call-site < tracing/observe.
+        // For child loggers, contextKeyValues is the context of the root logger; eventKeyValues
+        // carries the merged {call-site + strand + child context} result, so child wins over root.
+        foreach [string, Value] [k, v] in contextKeyValues.entries() {
+            logRecord[k] = evaluateKeyValue(v, enableSensitiveDataMasking);
+        }
+        foreach [string, Value] [k, v] in eventKeyValues.entries() {
+            logRecord[k] = evaluateKeyValue(v, enableSensitiveDataMasking);
+        }
+        addObservabilityKeyValues(logRecord);
     }
 
-    string logOutput = format == JSON_FORMAT ?
-        (enableSensitiveDataMasking ? toMaskedString(logRecord) : logRecord.toJsonString()) :
-        printLogFmt(logRecord, enableSensitiveDataMasking);
-
+    // The binary message is evaluated once and interned per log file. When the message has been evaluated for
+    // the text formats, the evaluated message is used as is
+    handle? binaryMessage = ();
+    string? filePath;
     lock {
-        if outputFilePath is string {
-            fileWrite(logOutput);
+        filePath = outputFilePath;
+    }
+    if levelEnabled && filePath is string {
+        [LogRecord, string] [outputRecord, variant] = getOutputRecord(logRecord, filePath, outputs);
+        if format == BINARY {
+            handle message = prepareBinaryMessage(textOutput ? logRecord.message : msg, enableSensitiveDataMasking);
+            binaryMessage = message;
+            writeBinaryLogToFile(filePath, outputRecord, message, enableSensitiveDataMasking);
+        } else {
+            fileWrite(getEncodedOutput(format, outputRecord, variant, outputs, enableSensitiveDataMasking),
+                    logLevel);
         }
     }
 
     foreach OutputDestination destination in destinations {
+        // A destination with a level of its own is not affected by the level of the logger
+        Level? destinationLevel = destination.level;
+        if destinationLevel is Level ? !isLevelEnabled(destinationLevel, logLevel) : !levelEnabled {
+            continue;
+        }
+        LogFormat destinationFormat = destination.format ?: format;
         if destination is StandardDestination {
+            [LogRecord, string] [outputRecord, variant] = getOutputRecord(logRecord, CONSOLE_OUTPUT, outputs);
+            if consoleBuffer.enabled {
+                // The buffer is flushed on the ERROR log events, so that they are not delayed
+                writeToConsole(getEncodedOutput(destinationFormat, outputRecord, variant, outputs,
+                        enableSensitiveDataMasking), destination.'type == STDERR, logLevel);
+                continue;
+            }
+            string logOutput = getLogOutput(destinationFormat, outputRecord, variant, outputs,
+                    enableSensitiveDataMasking);
             if destination.'type == STDERR {
                 io:fprintln(io:stderr, logOutput);
             } else {
                 io:fprintln(io:stdout, logOutput);
             }
+        } else if destinationFormat == BINARY {
+            handle message = binaryMessage ?:
+                prepareBinaryMessage(textOutput ? logRecord.message : msg, enableSensitiveDataMasking);
+            binaryMessage = message;
+            writeToFileDestination(destination, destinationFormat, logRecord, message, outputs,
+                    enableSensitiveDataMasking);
         } else {
-            RotationConfig? rotationConfig = destination.rotation;
-            if rotationConfig is () {
-                writeLogToFile(destination.path, logOutput);
-            } else {
-                lock {
-                    error? rotationResult = checkAndPerformRotation(destination.path, rotationConfig);
-                    if rotationResult is error {
-                        io:fprintln(io:stderr, string `warning: log rotation failed: ${rotationResult.message()}`);
-                    }
-                    writeLogToFile(destination.path, logOutput);
-                }
-            }
+            writeToFileDestination(destination, destinationFormat, logRecord, (), outputs,
+                    enableSensitiveDataMasking);
         }
     }
 }
 
+// The outputs of a log event, formatted once per log format and stack trace variant
+type EventOutputs record {|
+    // The evaluated key-values to be spliced in along with the prepared context of the logger
+    SplicedKeyValues? spliced = ();
+    // Log outputs, and their encoded bytes, by the log format followed by the stack trace variant
+    map<string> formatted = {};
+    map<handle> encoded = {};
+    // The log record written to each output, along with its stack trace variant
+    map<[LogRecord, string]> records = {};
+|};
+
+type SplicedKeyValues record {|
+    map<anydata> callSite;
+    map<anydata> trailing;
+    handle context;
+|};
+
+// Returns the log record to be written to an output (a log file or the console), along with its stack trace
+// variant. The stack traces which have already been written to the output in the current deduplication window are
+// replaced by their IDs, so that each output has the full stack traces it refers to. The variant is empty when
+// all the stack traces are written in full.
+isolated function getOutputRecord(LogRecord logRecord, string output, EventOutputs outputs)
+        returns [LogRecord, string] {
+    FullErrorDetails? errorDetails = logRecord.'error;
+    if errorDetails is () || !stackTraceDeduplication.enabled {
+        return [logRecord, ""];
+    }
+    [LogRecord, string]? written = outputs.records[output];
+    if written is [LogRecord, string] {
+        return written;
+    }
+    boolean fullStackTrace = isFullStackTrace(errorDetails.stackTraceId, output);
+    string variant = fullStackTrace ? "f" : "r";
+    ErrorDetail[] causes = [];
+    foreach ErrorDetail cause in errorDetails.causes {
+        boolean fullCauseStackTrace = isFullStackTrace(cause.stackTraceId, output);
+        variant += fullCauseStackTrace ? "f" : "r";
+        causes.push(fullCauseStackTrace ? cause :
+            {message: cause.message, detail: cause.detail, stackTraceId: cause.stackTraceId});
+    }
+    [LogRecord, string] outputRecord;
+    if !variant.includes("r") {
+        outputRecord = [logRecord, ""];
+    } else {
+        FullErrorDetails outputErrorDetails = fullStackTrace ? {...errorDetails} :
+            {message: errorDetails.message, detail: errorDetails.detail, stackTraceId: errorDetails.stackTraceId,
+                causes: []};
+        outputErrorDetails.causes = causes;
+        LogRecord deduplicated = {...logRecord};
+        deduplicated.'error = outputErrorDetails;
+        outputRecord = [deduplicated, variant];
+    }
+    outputs.records[output] = outputRecord;
+    return outputRecord;
+}
+
+isolated function isFullStackTrace(string? stackTraceId, string output) returns boolean {
+    return stackTraceId is () || isFirstOccurrence(output, stackTraceId);
+}
+
+isolated function getLogOutput(LogFormat format, LogRecord logRecord, string variant, EventOutputs outputs,
+        boolean enableSensitiveDataMasking) returns string {
+    string key = format + variant;
+    string? output = outputs.formatted[key];
+    if output is string {
+        return output;
+    }
+    SplicedKeyValues? spliced = outputs.spliced;
+    string logOutput;
+    if spliced is SplicedKeyValues {
+        logOutput = formatWithContext(logRecord, spliced.callSite, spliced.trailing, spliced.context);
+    } else {
+        logOutput = format == JSON_FORMAT ?
+            (hasSerializationLimits ? toBoundedJsonString(logRecord, enableSensitiveDataMasking) :
+                enableSensitiveDataMasking ? toMaskedString(logRecord) : logRecord.toJsonString()) :
+            printLogFmt(logRecord, enableSensitiveDataMasking);
+    }
+    outputs.formatted[key] = logOutput;
+    return logOutput;
+}
+
+isolated function getEncodedOutput(LogFormat format, LogRecord logRecord, string variant, EventOutputs outputs,
+        boolean enableSensitiveDataMasking) returns handle {
+    string key = format + variant;
+    handle? encodedOutput = outputs.encoded[key];
+    if encodedOutput is handle {
+        return encodedOutput;
+    }
+    handle output = encodeLogOutput(getLogOutput(format, logRecord, variant, outputs, enableSensitiveDataMasking));
+    outputs.encoded[key] = output;
+    return output;
+}
+
+// The binary message is the prepared message of the binary log event, or () for the text log formats
+isolated function writeToFileDestination(FileOutputDestination destination, LogFormat format, LogRecord logRecord,
+        handle? binaryMessage, EventOutputs outputs, boolean enableSensitiveDataMasking) {
+    RotationConfig? rotationConfig = destination.rotation;
+    if rotationConfig is () {
+        writeFileOutput(destination.path, format, logRecord, binaryMessage, outputs, enableSensitiveDataMasking);
+        return;
+    }
+    lock {
+        // The log file is rotated before the stack traces to be written in full are decided, so that the new log
+        // file has the stack traces it refers to
+        error? rotationResult = checkAndPerformRotation(destination.path, rotationConfig);
+        if rotationResult is error {
+            io:fprintln(io:stderr, string `warning: log rotation failed: ${rotationResult.message()}`);
+        }
+        writeFileOutput(destination.path, format, logRecord, binaryMessage, outputs, enableSensitiveDataMasking);
+    }
+}
+
+isolated function writeFileOutput(string filePath, LogFormat format, LogRecord logRecord, handle? binaryMessage,
+        EventOutputs outputs, boolean enableSensitiveDataMasking) {
+    [LogRecord, string] [outputRecord, variant] = getOutputRecord(logRecord, filePath, outputs);
+    if binaryMessage is handle {
+        writeBinaryLogToFile(filePath, outputRecord, binaryMessage, enableSensitiveDataMasking);
+    } else {
+        writeLogToFile(filePath, getEncodedOutput(format, outputRecord, variant, outputs, enableSensitiveDataMasking),
+                logRecord.level);
+    }
+}
+
+// Whether any of the destinations writes the log events in a text log format
+isolated function hasTextOutput(LogFormat format, readonly & OutputDestination[] destinations) returns boolean {
+    if format != BINARY {
+        return true;
+    }
+    foreach OutputDestination destination in destinations {
+        LogFormat? destinationFormat = destination.format;
+        if destinationFormat is LogFormat && destinationFormat != BINARY {
+            return true;
+        }
+    }
+    return false;
+}
+
+// Whether all the destinations use the log format of the logger
+isolated function hasUniformFormat(LogFormat format, readonly & OutputDestination[] destinations) returns boolean {
+    foreach OutputDestination destination in destinations {
+        LogFormat? destinationFormat = destination.format;
+        if destinationFormat is LogFormat && destinationFormat != format {
+            return false;
+        }
+    }
+    return true;
+}
+
+// The most verbose level among the levels of the destinations, if any of the destinations has a level
+isolated function getDestinationLevel(readonly & OutputDestination[] destinations) returns Level? {
+    Level? mostVerbose = ();
+    foreach OutputDestination destination in destinations {
+        Level? destinationLevel = destination.level;
+        if destinationLevel is Level && (mostVerbose is () || isLevelEnabled(destinationLevel, mostVerbose)) {
+            mostVerbose = destinationLevel;
+        }
+    }
+    return mostVerbose;
+}
+
+isolated function addObservabilityKeyValues(map<anydata> keyValues) {
+    if tracingEnabled || observabilityEnabled {
+        foreach [string, string] [k, v] in getObservabilityKeyValues().entries() {
+            keyValues[k] = v;
+        }
+    }
+}
+
+isolated function addRuntimeId(map<anydata> keyValues) {
+    if tracingEnabled || observabilityEnabled {
+        string? runtimeId = getObservabilityKeyValues()[ICP_RUNTIME_ID_KEY];
+        if runtimeId is string {
+            keyValues[ICP_RUNTIME_ID_KEY] = runtimeId;
+        }
+    }
+}
+
+// The span context and the runtime ID of the active span, which are extracted once per span. There are none outside
+// of the spans
+isolated function getObservabilityKeyValues() returns readonly & map<string> {
+    (readonly & map<string>)? cached = getCachedObservabilityKeyValues(NO_OBSERVABILITY_KEY_VALUES);
+    if cached is readonly & map<string> {
+        return cached;
+    }
+    map<string> keyValues = tracingEnabled ? observe:getSpanContext().clone() : {};
+    // The span context is empty until the span has been started, hence nothing is cached before
+    boolean spanStarted = !tracingEnabled || keyValues.length() > 0;
+    string? runtimeId = observe:getTagValue(ICP_RUNTIME_ID_KEY);
+    if runtimeId is string {
+        keyValues[ICP_RUNTIME_ID_KEY] = runtimeId;
+    }
+    readonly & map<string> observabilityKeyValues = keyValues.cloneReadOnly();
+    return spanStarted ? cacheObservabilityKeyValues(observabilityKeyValues) : observabilityKeyValues;
+}
+
+isolated function evaluateKeyValue(Value value, boolean enableSensitiveDataMasking) returns anydata {
+    anydata evaluated = value is Valuer ? value() :
+        (value is PrintableRawTemplate ? evaluateTemplate(value, enableSensitiveDataMasking) : value);
+    if enableSensitiveDataMasking && hasMaskingPatterns && evaluated is string {
+        return maskPatterns(evaluated);
+    }
+    return evaluated;
+}
+
 // Helper function to check if rotation is needed and perform it
 // This implements the rotation checking logic in Ballerina, calling Java only for the actual rotation
 isolated function checkAndPerformRotation(string filePath, RotationConfig rotationConfig) returns error? {
@@ -413,10 +710,18 @@ isolated function checkAndPerformRotation(string filePath, RotationConfig rotati
     }
 }
 
-// Helper function to write log output to a file
-isolated function writeLogToFile(string filePath, string logOutput) {
-    io:Error? result = io:fileWriteString(filePath, logOutput + "\n", io:APPEND);
+// Helper function to write the encoded log output to a file
+isolated function writeLogToFile(string filePath, handle output, string level) {
+    error? result = writeLogOutput(filePath, output, level);
+    if result is error {
+        io:fprintln(io:stderr, string `error: ${result.message()}`);
+    }
+}
+
+isolated function writeBinaryLogToFile(string filePath, LogRecord logRecord, handle message,
+        boolean enableSensitiveDataMasking) {
+    error? result = writeBinaryLog(filePath, logRecord, message, enableSensitiveDataMasking);
     if result is error {
-        io:fprintln(io:stderr, string `error: failed to write log output to the file: ${result.message()}`);
+        io:fprintln(io:stderr, string `error: ${result.message()}`);
     }
 }
@@ -44,6 +44,49 @@ public annotation SensitiveConfig Sensitive on record field;
 
 configurable boolean enableSensitiveDataMasking = false;
 
+# Minimum number of members of a list or table value to be masked in parallel when sensitive data masking
+# is enabled. Such values are split into chunks which are masked concurrently, unless their members may call
+# Ballerina code such as replacement functions. A negative value disables the parallel masking.
+configurable int parallelMaskingThreshold = -1;
+
+# Types of the patterns used to mask sensitive data in free-text log values
+public enum MaskingPatternType {
+    # The pattern is matched as a literal string
+    LITERAL,
+    # The pattern is matched as a Java regular expression
+    REGEX
+};
+
+# A pattern used to mask sensitive data in log messages and string key-values
+public type MaskingPattern record {|
+    # The literal string or the regular expression to be matched
+    string pattern;
+    # Type of the pattern
+    MaskingPatternType 'type = LITERAL;
+    # The replacement for the matched text
+    string replacement = "*****";
+|};
+
+# Patterns used to mask sensitive data in log messages and string key-values when sensitive data masking is enabled.
+# All the patterns are compiled into a single matcher, so each value is scanned only once.
+configurable readonly & MaskingPattern[] maskingPatterns = [];
+
+final boolean hasMaskingPatterns = maskingPatterns.length() > 0;
+
+# Key name based sensitive data masking configuration
+public type SensitiveKeysConfig record {|
+    # Names of the keys of which the values should be masked
+    string[] keys = [];
+    # Whether the key names are matched case-insensitively
+    boolean caseInsensitive = false;
+    # The replacement for the masked values
+    string replacement = "*****";
+|};
+
+# Keys of which the values are masked in key-values and in map fields which are not record fields,
+# when sensitive data masking is enabled
+configurable readonly & SensitiveKeysConfig sensitiveKeys = {};
+
 # Returns a masked string representation of the given data based on the sensitive data masking annotation.
 # This method panics if a cyclic value reference is encountered.
 #
@@ -52,3 +95,19 @@ configurable boolean enableSensitiveDataMasking = false;
 public isolated function toMaskedString(anydata data) returns string = @java:Method {
     'class: "io.ballerina.stdlib.log.Utils"
 } external;
+
+isolated function initMaskingPatterns(readonly & MaskingPattern[] patterns) returns error? = @java:Method {
+    'class: "io.ballerina.stdlib.log.PatternMasker"
+} external;
+
+isolated function initParallelMasking(int threshold) = @java:Method {
+    'class: "io.ballerina.stdlib.log.MaskedStringBuilder"
+} external;
+
+isolated function maskPatterns(string value) returns string = @java:Method {
+    'class: "io.ballerina.stdlib.log.PatternMasker"
+} external;
+
+isolated function initSensitiveKeys(readonly & SensitiveKeysConfig config) = @java:Method {
+    'class: "io.ballerina.stdlib.log.SensitiveKeyMatcher"
+} external;
@@ -88,3 +88,69 @@ function testLogMasking() returns error? {
     test:assertTrue(maskedLogs[0].includes(expectedLog));
     maskedLogs.removeAll();
 }
+
+@test:Config {
+    groups: ["logMasking"],
+    dependsOn: [testLogMasking]
+}
+function testLogMaskingWithPatterns() {
+    test:when(mock_fprintln).call("addMaskedLogs");
+    maskerJsonLogger.printInfo("paid with 4111-1111-1111-1111 using secret-token-123", card = "5500-0000-0000-0004", id = 1234);
+    string expectedLog = string `"message":"paid with ****-****-****-**** using *****","env":"test","card":"****-****-****-****","id":1234`;
+    test:assertEquals(maskedLogs.length(), 1);
+    test:assertTrue(maskedLogs[0].includes(expectedLog));
+    maskedLogs.removeAll();
+
+    string card = "4111-1111-1111-1111";
+    maskerLogger.printInfo(`paid with ${card}`, token = isolated function() returns string => "secret-token-123");
+    expectedLog = string `message="paid with ****-****-****-****" env="test" token="*****"`;
+    test:assertEquals(maskedLogs.length(), 1);
+    test:assertTrue(maskedLogs[0].includes(expectedLog));
+    maskedLogs.removeAll();
+}
+
+@test:Config {
+    groups: ["logMasking"]
+}
+function testMaskPatterns() {
+    test:assertEquals(maskPatterns("no sensitive data"), "no sensitive data");
+    test:assertEquals(maskPatterns("secret-token-123secret-token-123"), "**********");
+    test:assertEquals(maskPatterns("cards: 4111-1111-1111-1111, 5500-0000-0000-0004."),
+            "cards: ****-****-****-****, ****-****-****-****.");
+    // The back references refer to the groups of their own pattern
+    test:assertEquals(maskPatterns("pin:1234 session=abc;abc session=abc;xyz"),
+            "code:**** session=***** session=abc;xyz");
+}
+
+@test:Config {
+    groups: ["logMasking"]
+}
+function testMaskOverlappingPatterns() {
+    // Of the literals matching at the same position, the longest one is masked
+    test:assertEquals(maskPatterns("secret-token-123 secret-token-abc"), "***** [token]-abc");
+    // Of the overlapping matches, the leftmost one is masked
+    test:assertEquals(maskPatterns("api-secret-token-123"), "[api]-token-123");
+    // The regular expressions are alternatives of a single expression, so the first configured one which matches
+    // at a position is masked, even if a later one matches a longer text
+    test:assertEquals(maskPatterns("ref-12-ab"), "ref-#2-ab");
+}
+
+@test:Config {
+    groups: ["logMasking"],
+    dependsOn: [testLogMaskingWithPatterns]
+}
+function testLogMaskingWithSensitiveKeys() {
+    test:when(mock_fprintln).call("addMaskedLogs");
+    map<json> headers = {"Authorization": "Bearer abc", "accept": "*/*"};
+    maskerJsonLogger.printInfo("request received", apiKey = "key-123", headers = headers);
+    string expectedLog = string `"message":"request received","env":"test","apiKey":"*****","headers":{"Authorization":"*****","accept":"*/*"}`;
+    test:assertEquals(maskedLogs.length(), 1);
+    test:assertTrue(maskedLogs[0].includes(expectedLog));
+    maskedLogs.removeAll();
+
+    maskerLogger.printInfo("request received", APIKEY = 12345, headers = headers);
+    expectedLog = string `message="request received" env="test" APIKEY="*****" headers={"Authorization":"*****","accept":"*/*"}`;
+    test:assertEquals(maskedLogs.length(), 1);
+    test:assertTrue(maskedLogs[0].includes(expectedLog));
+    maskedLogs.removeAll();
+}
@@ -82,6 +82,29 @@ isolated function testPrintLogFmtExtern() {
     "time=2021-05-04T10:32:13.220+05:30 level=DEBUG module=foo/bar message=\"debug message\" username=\"Alex\" id=845315");
 }
 
+@test:Config {}
+function testPrintMaskedLogFmtExtern() {
+    User user = {
+        name: "John Doe",
+        ssn: "123-45-6789",
+        password: "password123",
+        mail: "john.doe@example.com",
+        creditCard: "4111-1111-1111-1111"
+    };
+    LogRecord logRecord1 = {
+        time: "2021-05-04T10:32:13.220+05:30",
+        level: "INFO",
+        module: "",
+        message: "user 'John'\tlogged in\n",
+        "user": user,
+        "apiKey": "d4f1e9",
+        "tags": ["a\"b", 1],
+        "session": ()
+    };
+    test:assertEquals(printLogFmt(logRecord1, true),
+    string `time=2021-05-04T10:32:13.220+05:30 level=INFO module="" message="user \'John\'\tlogged in\n" user={"name":"John Doe","password":"*****","mail":"joh**************com"} apiKey="*****" tags=["a\"b",1] session=null`);
+}
+
 function test() {
     error err = error("bad sad");
     printDebug("something went wrong", 'error = err, stackTrace = err.stackTrace(), username = "Alex92", admin = true, id = 845315,
@@ -169,6 +192,56 @@ function testValidateRotationConfigErrors() returns error? {
     }
 }
 
+@test:Config {}
+function testSyncConfig() returns error? {
+    Error? result = validateDestinations([{path: "target/tmp/output/sync.log", sync: {policy: EVERY_N_EVENTS, events: 0}}]);
+    test:assertTrue(result is Error, "Should error when events <= 0 with EVERY_N_EVENTS");
+    if result is Error {
+        test:assertEquals(result.message(), "Invalid sync configuration: interval and events should be positive");
+    }
+
+    // The log events are written as usual, along with the syncs
+    string filePath = "target/tmp/output/sync.log";
+    Logger logger = check fromConfig(destinations = [
+        {'type: FILE, path: filePath, mode: TRUNCATE, sync: {policy: ON_LEVEL, level: WARN}}
+    ]);
+    logger.printInfo("This is an info message");
+    logger.printError("This is an error message");
+    string[] fileLogs = check io:fileReadLines(filePath);
+    test:assertEquals(fileLogs.length(), 2);
+    test:assertTrue(fileLogs[1].includes("This is an error message"));
+
+    // The destinations of a log file share its policy, and a conflicting policy is rejected
+    Logger _ = check fromConfig(destinations = [{'type: FILE, path: filePath, sync: {policy: ON_LEVEL, level: WARN}}]);
+    Logger|Error conflicting = fromConfig(destinations = [{'type: FILE, path: filePath, sync: {policy: NONE}}]);
+    test:assertTrue(conflicting is Error, "Should error when the policy conflicts with the policy of the log file");
+    if conflicting is Error {
+        test:assertEquals(conflicting.message(),
+                "Conflicting sync configurations for the log file: 'target/tmp/output/sync.log'");
+    }
+
+    // The policies of a logger which fails the validation are not installed
+    string invalidFilePath = "target/tmp/output/sync-invalid.log";
+    Logger|Error invalid = fromConfig(format = BINARY, destinations = [
+        {'type: FILE, path: invalidFilePath, sync: {policy: NONE}},
+        {'type: STDERR}
+    ]);
+    test:assertTrue(invalid is Error, "Should error when the binary log format is used with the console");
+    Logger _ = check fromConfig(destinations = [
+        {'type: FILE, path: invalidFilePath, sync: {policy: EVERY_N_EVENTS, events: 10}}
+    ]);
+}
+
+@test:Config {}
+function testFlushLogs() {
+    test:assertEquals(flushLogs(), ());
+    Error? result = flushLogs(-1);
+    test:assertTrue(result is Error, "Should error when the timeout is negative");
+    if result is Error {
+        test:assertEquals(result.message(), "Invalid flush timeout: the timeout should not be negative");
+    }
+}
+
 @test:Config {}
 function testProcessTemplateDeprecated() {
     // Test with a plain string insertion
@@ -186,6 +259,29 @@ function testProcessTemplateDeprecated() {
     test:assertEquals(result3, "outer: nested-inner");
 }
 
+@test:Config {}
+function testEvaluateTemplate() {
+    string name = "world";
+    test:assertEquals(evaluateTemplate(`Hello ${name}!`), "Hello world!");
+    test:assertEquals(evaluateTemplate(`count: ${isolated function() returns int => 42}, empty: ${()}`),
+        "count: 42, empty: ");
+    string inner = "inner";
+    test:assertEquals(evaluateTemplate(`outer: ${`nested-${inner}-${isolated function() returns int => 1}`}!`),
+        "outer: nested-inner-1!");
+
+    final User & readonly user = {
+        name: "John Doe",
+        ssn: "123-45-6789",
+        password: "password123",
+        mail: "john.doe@example.com",
+        creditCard: "4111-1111-1111-1111"
+    };
+    string expectedUser = string `{"name":"John Doe","password":"*****","mail":"joh**************com"}`;
+    test:assertEquals(evaluateTemplate(`user: ${user}, nested: ${`${isolated function() returns User => user}`}`, true),
+        string `user: ${expectedUser}, nested: ${expectedUser}`);
+    test:assertEquals(evaluateTemplate(`name: ${name}, empty: ${()}`, true), "name: world, empty: null");
+}
+
 @test:Config {
     dependsOn: [testPrintLog]
 }
@@ -207,3 +303,29 @@ function testPrintErrorWithJsonMessage() {
     printError("json message error", 'error = jsonMsgError);
     test:assertEquals(logMessage, "something went wrong");
 }
+
+@test:Config {}
+function testParseErrorMessage() {
+    test:assertEquals(parseErrorMessage("{\"type\":\"NotFound\",\"code\":404}"), {"type": "NotFound", "code": 404});
+    test:assertEquals(parseErrorMessage(" [1, 2]"), [1, 2]);
+    test:assertEquals(parseErrorMessage("404"), 404);
+    test:assertEquals(parseErrorMessage("true"), true);
+    test:assertEquals(parseErrorMessage("not found"), "not found");
+    test:assertEquals(parseErrorMessage("{invalid json"), "{invalid json");
+    test:assertEquals(parseErrorMessage(""), "");
+}
+
+@test:Config {}
+function testGetFullErrorDetailsOfSameError() {
+    error cause = error("root cause", code = 500);
+    error chained = error("top level", cause);
+    FullErrorDetails first = getFullErrorDetails(chained);
+    FullErrorDetails second = getFullErrorDetails(chained);
+    test:assertEquals(first, second);
+    test:assertEquals(first.message, "top level");
+    test:assertEquals(first.causes.length(), 1);
+    test:assertEquals(first.causes[0].message, "root cause");
+    test:assertEquals(first.causes[0].detail, {"code": 500});
+    // The details of the cause are shared with the errors caused by it
+    test:assertExactEquals(getFullErrorDetails(cause)?.stackTrace, first.causes[0]?.stackTrace);
+}
@@ -182,6 +182,69 @@ function testChildLogger() {
     groups: ["logger"],
     dependsOn: [testChildLogger]
 }
+function testChildLoggerWithOverriddenContext() {
+    Logger childLogger = rootLogger.withContext(tier = "gold", env = "child");
+    test:when(mock_fprintln).call("addLogs");
+    childLogger.printInfo("This is an info message", requestId = "req-123");
+    test:assertEquals(stdErrLogs.length(), 1);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"child", "requestId":"req-123", "tier":"gold"}`));
+    stdErrLogs.removeAll();
+
+    // Call-site key-values keep the position of the context key-values they override
+    childLogger.printInfo("This is an info message", requestId = "req-123", tier = "silver", env = "call-site");
+    test:assertEquals(stdErrLogs.length(), 1);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"call-site", "requestId":"req-123", "tier":"silver"}`));
+    stdErrLogs.removeAll();
+
+    rootLogger.printInfo("This is an info message", env = "call-site", tier = "silver");
+    test:assertEquals(stdErrLogs.length(), 1);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"call-site", "tier":"silver"}`));
+    stdErrLogs.removeAll();
+}
+
+@test:Config {
+    groups: ["logger"],
+    dependsOn: [testChildLoggerWithOverriddenContext]
+}
+function testNestedChildLogger() {
+    Logger childLogger = rootLogger.withContext(child = true, env = "child");
+    Logger grandChildLogger = childLogger.withContext(name = "grand-child", env = "grand-child");
+    test:when(mock_fprintln).call("addLogs");
+    grandChildLogger.printInfo("This is an info message", requestId = "req-123");
+    test:assertEquals(stdErrLogs.length(), 1);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "module":"ballerina/log$test", "message":"This is an info message", "env":"grand-child", "requestId":"req-123", "child":true, "name":"grand-child"}`));
+    stdErrLogs.removeAll();
+
+    grandChildLogger.printDebug("This is a debug message", name = "call-site");
+    test:assertEquals(stdErrLogs.length(), 1);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "module":"ballerina/log$test", "message":"This is a debug message", "env":"grand-child", "name":"call-site", "child":true}`));
+    stdErrLogs.removeAll();
+    test:assertEquals(grandChildLogger.getLevel(), rootLogger.getLevel());
+}
+
+@test:Config {
+    groups: ["logger"],
+    dependsOn: [testNestedChildLogger]
+}
+function testDeeplyNestedChildLogger() {
+    Logger logger = rootLogger;
+    foreach int i in 0 ..< 10 {
+        KeyValues keyValues = {};
+        keyValues[string `k${i}`] = i;
+        logger = logger.withContext(keyValues);
+    }
+    logger = logger.withContext(k3 = "overridden", env = "nested");
+    test:when(mock_fprintln).call("addLogs");
+    logger.printInfo("This is an info message", k5 = "call-site");
+    test:assertEquals(stdErrLogs.length(), 1);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"nested", "k5":"call-site", "k0":0, "k1":1, "k2":2, "k3":"overridden", "k4":4, "k6":6, "k7":7, "k8":8, "k9":9}`));
+    stdErrLogs.removeAll();
+}
+
+@test:Config {
+    groups: ["logger"],
+    dependsOn: [testDeeplyNestedChildLogger]
+}
 function testModuleLevelOverride() {
     test:when(mock_fprintln).call("addLogs");
     // "myorg/myproject" has level ERROR in Config.toml — DEBUG/INFO/WARN should be suppressed.
@@ -197,3 +260,135 @@ function testModuleLevelOverride() {
     test:assertTrue(stdErrLogs[0].includes("\"message\":\"should pass through\""));
     stdErrLogs.removeAll();
 }
+
+@test:Config {
+    groups: ["logger"],
+    dependsOn: [testModuleLevelOverride]
+}
+function testStrandContext() returns error? {
+    test:when(mock_fprintln).call("addLogs");
+    final Logger childLogger = rootLogger.withContext(child = true, requestId = "child");
+    check withContextScope(isolated function() returns error? {
+        printInfo("This is an info message", key = "value");
+        childLogger.printInfo("This is an info message");
+        childLogger.printInfo("This is an info message", requestId = "call-site");
+    }, requestId = "req-123");
+    printInfo("This is an info message");
+
+    test:assertEquals(stdErrLogs.length(), 4);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"req-123", "key":"value"}`));
+    test:assertTrue(stdErrLogs[1].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"req-123", "child":true}`));
+    test:assertTrue(stdErrLogs[2].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"call-site", "child":true}`));
+    test:assertTrue(stdErrLogs[3].endsWith(string `, "message":"This is an info message", "env":"test"}`));
+    stdErrLogs.removeAll();
+
+    // The context put by a strand is not visible to the strand which started it
+    future<()> result = start logWithStrandContext();
+    _ = wait result;
+    printInfo("This is an info message");
+
+    test:assertEquals(stdErrLogs.length(), 3);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"req-456"}`));
+    test:assertTrue(stdErrLogs[1].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"req-456", "userId":"user-1"}`));
+    test:assertTrue(stdErrLogs[2].endsWith(string `, "message":"This is an info message", "env":"test"}`));
+    stdErrLogs.removeAll();
+}
+
+@test:Config {
+    groups: ["logger"],
+    dependsOn: [testStrandContext]
+}
+function testStrandContextRestoredOnPanic() {
+    test:when(mock_fprintln).call("addLogs");
+    // The context of a child logger with a module key-value is merged into each log event
+    final Logger childLogger = rootLogger.withContext(module = "myorg/child", requestId = "child");
+    error? result = trap withContextScope(isolated function() returns error? {
+        childLogger.printInfo("This is an info message");
+        panic error("Scope failure");
+    }, requestId = "req-789");
+    test:assertTrue(result is error);
+    test:assertEquals((<error>result).message(), "Scope failure");
+    printInfo("This is an info message");
+    childLogger.printInfo("This is an info message");
+
+    test:assertEquals(stdErrLogs.length(), 3);
+    test:assertTrue(stdErrLogs[0].includes(string `"module":"myorg/child"`));
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"req-789"}`));
+    test:assertTrue(stdErrLogs[1].endsWith(string `, "message":"This is an info message", "env":"test"}`));
+    test:assertTrue(stdErrLogs[2].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"child"}`));
+    stdErrLogs.removeAll();
+}
+
+function logWithStrandContext() {
+    putContext(requestId = "req-456");
+    printInfo("This is an info message");
+    putContext(userId = "user-1");
+    printInfo("This is an info message");
+}
+
+@test:Config {
+    groups: ["logger"],
+    dependsOn: [testStrandContextRestoredOnPanic]
+}
+function testStrandContextInStartedStrand() returns error? {
+    test:when(mock_fprintln).call("addLogs");
+    check withContextScope(isolated function() returns error? {
+        // The key-values are passed on to the started strand, which sets its own context
+        future<error?> result = start logInContextScope("req-321");
+        check wait result;
+        printInfo("This is an info message");
+    }, requestId = "req-321");
+    printInfo("This is an info message");
+
+    test:assertEquals(stdErrLogs.length(), 3);
+    test:assertTrue(stdErrLogs[0].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"req-321", "strand":"started"}`));
+    test:assertTrue(stdErrLogs[1].endsWith(string `, "message":"This is an info message", "env":"test", "requestId":"req-321"}`));
+    test:assertTrue(stdErrLogs[2].endsWith(string `, "message":"This is an info message", "env":"test"}`));
+    stdErrLogs.removeAll();
+}
+
+isolated function logInContextScope(string requestId) returns error? {
+    return withContextScope(isolated function() returns error? {
+        printInfo("This is an info message");
+    }, requestId = requestId, strand = "started");
+}
+
+@test:Config {
+    groups: ["logger"],
+    dependsOn: [testStrandContextInStartedStrand]
+}
+function testPerDestinationLevelAndFormat() returns error? {
+    test:when(mock_fprintln).call("addLogs");
+    string filePath = "target/tmp/output/logger-destinations.log";
+    Logger logger = check fromConfig(
+        format = LOGFMT,
+        level = INFO,
+        keyValues = {env: "test"},
+        destinations = [
+            {'type: STDERR, level: WARN},
+            {'type: STDOUT},
+            {'type: FILE, path: filePath, mode: TRUNCATE, level: DEBUG, format: JSON_FORMAT}
+        ]
+    );
+    logger.printDebug("This is a debug message");
+    logger.withContext(child = true).printInfo("This is an info message");
+    logger.printWarn("This is a warning message");
+
+    // The standard error only has the events at or above its level
+    test:assertEquals(stdErrLogs.length(), 1);
+    test:assertTrue(stdErrLogs[0].endsWith(string ` level=WARN module=ballerina/log$test message="This is a warning message" env="test"`));
+    stdErrLogs.removeAll();
+
+    // The standard output has the events at or above the level of the logger
+    test:assertEquals(stdOutLogs.length(), 2);
+    test:assertTrue(stdOutLogs[0].endsWith(string ` level=INFO module=ballerina/log$test message="This is an info message" env="test" child=true`));
+    test:assertTrue(stdOutLogs[1].endsWith(string ` level=WARN module=ballerina/log$test message="This is a warning message" env="test"`));
+    stdOutLogs.removeAll();
+
+    // The file has all the events, in its own format
+    string[] fileLogs = check io:fileReadLines(filePath);
+    test:assertEquals(fileLogs.length(), 3);
+    test:assertTrue(fileLogs[0].endsWith(string `, "level":"DEBUG", "module":"ballerina/log$test", "message":"This is a debug message", "env":"test"}`));
+    test:assertTrue(fileLogs[1].endsWith(string `, "level":"INFO", "module":"ballerina/log$test", "message":"This is an info message", "env":"test", "child":true}`));
+    test:assertTrue(fileLogs[2].endsWith(string `, "level":"WARN", "module":"ballerina/log$test", "message":"This is a warning message", "env":"test"}`));
+}
@@ -14,6 +14,7 @@
 // specific language governing permissions and limitations
 // under the License.
 
+import ballerina/jballerina.java;
 import ballerina/test;
 
 isolated function maskStringPartially(string input) returns string {
@@ -583,3 +584,147 @@ function testMaskedStringWithCharactersToBeEscaped() {
     test:assertEquals(maskedMapStr, expectedStr);
     checkJsonParsing(maskedMapStr);
 }
+
+@test:Config {
+    groups: ["maskedString"]
+}
+function testMaskedStringWithSensitiveKeys() {
+    map<anydata> request = {
+        id: 1,
+        "apikey": "key-123",
+        headers: {"AUTHORIZATION": "Basic abc", "host": "localhost"}
+    };
+    string expectedStr = string `{"id":1,"apikey":"*****","headers":{"AUTHORIZATION":"*****","host":"localhost"}}`;
+    test:assertEquals(toMaskedString(request), expectedStr);
+
+    // Record fields are masked based on the annotations
+    record {|string apiKey;|} typedRequest = {apiKey: "key-123"};
+    test:assertEquals(toMaskedString(typedRequest), string `{"apiKey":"key-123"}`);
+}
+
+@test:Config {
+    groups: ["maskedString"]
+}
+function testMaskedStringWithLargeArray() {
+    // Arrays larger than the configured parallelMaskingThreshold are masked in parallel, unless their members
+    // have replacement functions, as the User records do
+    User[] users = [];
+    string[] expectedUsers = [];
+    foreach int i in 0 ..< 2000 {
+        users.push({
+            name: string `user${i}`,
+            ssn: "123-45-6789",
+            password: "password123",
+            mail: "john.doe@example.com",
+            creditCard: "4111-1111-1111-1111"
+        });
+        expectedUsers.push(string `{"name":"user${i}","password":"*****","mail":"joh**************com"}`);
+    }
+    string maskedStr = toMaskedString({users});
+    string expectedStr = string `{"users":[${string:'join(",", ...expectedUsers)}]}`;
+    test:assertEquals(maskedStr, expectedStr);
+    checkJsonParsing(maskedStr);
+
+    table<map<string>> usersTable = table [];
+    string[] expectedRows = [];
+    foreach int i in 0 ..< 2000 {
+        usersTable.add({name: string `user${i}`, apiKey: "key"});
+        expectedRows.push(string `{"name":"user${i}","apiKey":"*****"}`);
+    }
+    string maskedTableStr = toMaskedString(usersTable);
+    test:assertEquals(maskedTableStr, string `[${string:'join(",", ...expectedRows)}]`);
+}
+
+isolated string[] replacedAccountNumbers = [];
+
+isolated function recordAccountNumber(string input) returns string {
+    lock {
+        replacedAccountNumbers.push(input);
+    }
+    return "****";
+}
+
+type Account record {|
+    string id;
+    @Sensitive {strategy: {replacement: recordAccountNumber}}
+    string number;
+|};
+
+@test:Config {
+    groups: ["maskedString"]
+}
+function testMaskedStringWithReplacementFunctionInLargeArray() {
+    Account[] accounts = from int i in 0 ..< 2000 select {id: i.toString(), number: string `acc${i}`};
+    string[] expectedAccounts = from int i in 0 ..< 2000 select string `{"id":"${i}","number":"****"}`;
+    test:assertEquals(toMaskedString(accounts), string `[${string:'join(",", ...expectedAccounts)}]`);
+
+    // The replacement functions are called on the logging strand, in the order of the members
+    string[] replaced;
+    lock {
+        replaced = replacedAccountNumbers.clone();
+    }
+    test:assertEquals(replaced, from int i in 0 ..< 2000 select string `acc${i}`);
+}
+
+isolated function getParallelMaskedChunks() returns int = @java:Method {
+    'class: "io.ballerina.stdlib.log.MaskedStringBuilder"
+} external;
+
+@test:Config {
+    groups: ["maskedString"]
+}
+function testMaskedStringOfLargeJsonArrayInParallel() {
+    json[] values = from int i in 0 ..< 2000 select {id: i, name: string `name${i}`};
+    string[] expectedValues = from int i in 0 ..< 2000 select string `{"id":${i},"name":"name${i}"}`;
+    int maskedChunks = getParallelMaskedChunks();
+    test:assertEquals(toMaskedString(values), string `[${string:'join(",", ...expectedValues)}]`);
+    // The members of a json array are masked on the masking executor
+    test:assertTrue(getParallelMaskedChunks() > maskedChunks);
+}
+
+@test:Config {
+    groups: ["maskedString"],
+    dependsOn: [testMaskedStringWithReplacementFunctionInLargeArray]
+}
+function testMaskedStringWithReplacementFunctionInLargeJsonArray() {
+    lock {
+        replacedAccountNumbers.removeAll();
+    }
+    json[] values = from int i in 0 ..< 2000
+        select i % 500 == 0 ? <Account>{id: i.toString(), number: string `acc${i}`} : i;
+    string[] expectedValues = from int i in 0 ..< 2000
+        select i % 500 == 0 ? string `{"id":"${i}","number":"****"}` : i.toString();
+    test:assertEquals(toMaskedString(values), string `[${string:'join(",", ...expectedValues)}]`);
+
+    // The chunks holding the records are masked again on the logging strand, in order
+    string[] replaced;
+    lock {
+        replaced = replacedAccountNumbers.clone();
+    }
+    test:assertEquals(replaced, ["acc0", "acc500", "acc1000", "acc1500"]);
+}
+
+@test:Config {
+    groups: ["maskedString"]
+}
+function testMaskedStringWithCyclicRecordInLargeArray() {
+    CyclicRecord rec = {
+        name: "name"
+    };
+    CyclicRecord[] records = [];
+    foreach int i in 0 ..< 2000 {
+        records.push({name: string `record${i}`});
+    }
+    // The same value repeated in sibling elements is not a cyclic reference
+    records[100] = rec;
+    records[1500] = rec;
+    string maskedStr = toMaskedString(records);
+    test:assertTrue(maskedStr.startsWith(string `[{"name":"record0"},`));
+
+    rec.child = {name: "child", child: rec};
+    string|error cyclicStr = trap toMaskedString(records);
+    if cyclicStr is string {
+        test:assertFail("Expected an error due to cyclic value reference, but got a string");
+    }
+    test:assertEquals(cyclicStr.message(), "Cyclic value reference detected in the record");
+}
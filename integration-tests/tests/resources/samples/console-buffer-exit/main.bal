@@ -0,0 +1,31 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/log;
+
+public function main() returns error? {
+    foreach int i in 0 ..< 10 {
+        log:printInfo("processing request", requestId = i);
+    }
+    check log:flushLogs();
+    io:fprintln(io:stderr, "logs flushed");
+    foreach int i in 10 ..< 20 {
+        log:printInfo("processing request", requestId = i);
+    }
+    // The log events buffered before the panic are written out when the program exits
+    panic error("fatal error");
+}
@@ -0,0 +1,30 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/log;
+
+public function main() {
+    foreach int i in 0 ..< 50 {
+        log:printInfo("processing request", requestId = i);
+    }
+    io:println(log:getConsoleBufferOccupancy().toJsonString());
+    // Longer than a segment of the arena, so written right away along with the buffered log events
+    log:printInfo("large payload", payload = "x".padEnd(5000, "x"));
+    foreach int i in 50 ..< 100 {
+        log:printInfo("processing request", requestId = i);
+    }
+}
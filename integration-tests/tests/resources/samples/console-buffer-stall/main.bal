@@ -0,0 +1,31 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/log;
+
+configurable string markerFile = ?;
+
+const PAYLOAD = "0123456789abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmnopqrstuvwxyz";
+
+public function main() returns error? {
+    // The console stalls once the pipe of the standard error is full, as it is not read until the marker file is
+    // written, while the segments of the arena are being written
+    foreach int i in 0 ..< 20000 {
+        log:printInfo("processing request", requestId = i, payload = PAYLOAD);
+    }
+    check io:fileWriteString(markerFile, "done");
+}
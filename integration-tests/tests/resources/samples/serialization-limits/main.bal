@@ -0,0 +1,28 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/log;
+
+final readonly & map<anydata> user = {
+    name: "Johnathan",
+    address: {city: "Colombo", geo: {lat: 6.9271, lon: 79.8612}}
+};
+
+public function main() returns error? {
+    log:printInfo("serialization limits", items = [1, 2, 3], user = user);
+    log:Logger logger = check log:fromConfig(format = log:LOGFMT);
+    logger.printInfo("serialization limits", items = [1, 2, 3], user = user);
+}
@@ -0,0 +1,47 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/log;
+
+configurable string rotatedLogFile = ?;
+configurable string logFile = ?;
+
+public function main() returns error? {
+    log:Logger fileLogger = check log:fromConfig(
+        destinations = [{'type: log:FILE, path: logFile, mode: log:TRUNCATE}]
+    );
+    // The rotated log file is rotated before each log event, as soon as it is not empty
+    log:Logger bothFilesLogger = check log:fromConfig(
+        destinations = [
+            {
+                'type: log:FILE,
+                path: rotatedLogFile,
+                mode: log:TRUNCATE,
+                rotation: {policy: log:SIZE_BASED, maxFileSize: 1, maxBackupFiles: 1}
+            },
+            {'type: log:FILE, path: logFile}
+        ]
+    );
+
+    error err = createError();
+    fileLogger.printError("request failed", 'error = err);
+    bothFilesLogger.printError("request failed", 'error = err);
+    bothFilesLogger.printError("request failed", 'error = err);
+}
+
+function createError() returns error {
+    return error("request failed", error("connection refused"));
+}
@@ -0,0 +1,124 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/jballerina.java;
+import ballerina/log;
+import ballerina/test;
+
+const BINARY_FORMAT_APPEND_CONFIG_FILE = "tests/resources/samples/binary-format-append/Config.toml";
+const BINARY_FORMAT_APPEND_LOG_FILE = "./build/tmp/output/binary-append.log";
+
+// Header record: length, record type, magic bytes and format version
+final readonly & byte[] BINARY_LOG_HEADER = [6, 0, 66, 76, 79, 71, 1];
+
+@test:Config {
+    groups: ["binaryFormat"]
+}
+function testBinaryFormat() returns error? {
+    string logFile = INTEGRATION_TEST_DIR + "binary.log";
+    log:Logger binaryLogger = check log:fromConfig(
+        format = log:BINARY,
+        destinations = [
+            {
+                'type: log:FILE,
+                path: logFile,
+                mode: log:TRUNCATE
+            }
+        ]
+    );
+    foreach int i in 0 ..< 3 {
+        binaryLogger.printInfo("Processing transaction", transactionId = i, status = "completed");
+        binaryLogger.printInfo(`Processing order ${i * 1000}`);
+    }
+    binaryLogger.printError("Transaction failed", 'error = error("insufficient funds"));
+
+    byte[] content = check io:fileReadBytes(logFile);
+    test:assertEquals(content.slice(0, BINARY_LOG_HEADER.length()), BINARY_LOG_HEADER);
+    string text = check string:fromBytes(from byte b in content where b >= 32 && b < 127 select b);
+    // The keys and the messages are written as they are, and each key is written once per file
+    test:assertEquals(countOccurrences(text, "transactionId"), 1);
+    test:assertEquals(countOccurrences(text, "status"), 1);
+    test:assertEquals(countOccurrences(text, "completed"), 3);
+    // The message templates are interned, and only the insertions are written per event
+    test:assertEquals(countOccurrences(text, "Processing transaction"), 1);
+    test:assertEquals(countOccurrences(text, "Processing order "), 1);
+    foreach int i in 0 ..< 3 {
+        test:assertTrue(text.includes((i * 1000).toString()));
+    }
+    test:assertTrue(text.includes("\"message\":\"insufficient funds\""));
+
+    // A truncated log file starts over with a new header
+    log:Logger truncatedLogger = check log:fromConfig(
+        format = log:BINARY,
+        destinations = [
+            {
+                'type: log:FILE,
+                path: logFile,
+                mode: log:TRUNCATE
+            }
+        ]
+    );
+    truncatedLogger.printInfo("Processing transaction", transactionId = 3);
+    content = check io:fileReadBytes(logFile);
+    test:assertEquals(content.slice(0, BINARY_LOG_HEADER.length()), BINARY_LOG_HEADER);
+    text = check string:fromBytes(from byte b in content where b >= 32 && b < 127 select b);
+    test:assertEquals(countOccurrences(text, "transactionId"), 1);
+}
+
+@test:Config {
+    groups: ["binaryFormat"]
+}
+function testBinaryFormatAppendedByRestartedProcess() returns error? {
+    check removeFile(BINARY_FORMAT_APPEND_LOG_FILE, false);
+    foreach int run in 0 ..< 2 {
+        Process result = check exec(bal_exec_path, {BAL_CONFIG_FILES: BINARY_FORMAT_APPEND_CONFIG_FILE}, (), "run",
+                string `${temp_dir_path}/binary-format-append`);
+        test:assertEquals(check result.waitForExit(), 0);
+    }
+
+    // Each process starts a new segment of the file with its own dictionaries
+    byte[] content = check io:fileReadBytes(BINARY_FORMAT_APPEND_LOG_FILE);
+    test:assertEquals(content.slice(0, BINARY_LOG_HEADER.length()), BINARY_LOG_HEADER);
+    string text = check string:fromBytes(from byte b in content where b >= 32 && b < 127 select b);
+    test:assertEquals(countOccurrences(text, "BLOG"), 2);
+
+    // The events of both the processes are decoded, with the time of the log records
+    string[] logLines = re `\n`.split((check decodeBinaryLog(BINARY_FORMAT_APPEND_LOG_FILE)).trim());
+    test:assertEquals(logLines.length(), 6);
+    foreach int i in 0 ..< logLines.length() {
+        map<json> logLine = check (check logLines[i].fromJsonString()).ensureType();
+        test:assertEquals(logLine["message"], string `Processing order ${i % 3}`);
+        test:assertEquals(logLine["status"], "completed");
+        test:assertTrue(re `\d{4}-\d{2}-\d{2}T\d{2}:\d{2}:\d{2}\.\d{3}(Z|[+-]\d{2}:\d{2})`
+                .isFullMatch(check logLine["time"].ensureType(string)));
+    }
+}
+
+@test:Config {
+    groups: ["binaryFormat"]
+}
+function testBinaryFormatWithStandardDestination() {
+    log:Logger|log:Error result = log:fromConfig(format = log:BINARY, destinations = [{'type: log:STDERR}]);
+    if result is log:Logger {
+        test:assertFail("Expected an error for the binary format with the standard destination");
+    }
+    test:assertEquals(result.message(), "The binary log format is supported only with file destinations.");
+}
+
+isolated function decodeBinaryLog(string path) returns string|error = @java:Method {
+    'class: "io.ballerina.stdlib.log.testutils.nativeimpl.BinaryLogUtils"
+} external;
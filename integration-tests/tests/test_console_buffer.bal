@@ -0,0 +1,279 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+import ballerina/io;
+import ballerina/lang.runtime;
+
+const CONSOLE_BUFFER_CONFIG_FILE = "tests/resources/samples/console-buffer/Config.toml";
+const CONSOLE_BUFFER_DROP_CONFIG_FILE = "tests/resources/samples/console-buffer-drop/Config.toml";
+const CONSOLE_BUFFER_PRIORITY_CONFIG_FILE = "tests/resources/samples/console-buffer-priority/Config.toml";
+const CONSOLE_BUFFER_OFF_HEAP_CONFIG_FILE = "tests/resources/samples/console-buffer-off-heap/Config.toml";
+const CONSOLE_BUFFER_STRIPED_CONFIG_FILE = "tests/resources/samples/console-buffer-striped/Config.toml";
+const CONSOLE_BUFFER_GATHERING_CONFIG_FILE = "tests/resources/samples/console-buffer-gathering/Config.toml";
+const CONSOLE_BUFFER_EXIT_CONFIG_FILE = "tests/resources/samples/console-buffer-exit/Config.toml";
+const CONSOLE_BUFFER_STALL_CONFIG_FILE = "tests/resources/samples/console-buffer-stall/Config.toml";
+const CONSOLE_BUFFER_STALL_MARKER_FILE = "./build/tmp/output/console-buffer-stall.done";
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBuffer() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(100000);
+    string[] logLines = re `\n`.split(outText.trim());
+
+    // All the buffered log events are written, whole and in order, by the time the program exits
+    test:assertEquals(logLines.length(), 59, INCORRECT_NUMBER_OF_LINES);
+    int index = 5;
+    foreach int i in 0 ..< 50 {
+        test:assertTrue(logLines[index].endsWith(string `"level":"INFO", "module":"wso2/console_buffer", "message":"processing request", "requestId":${i}}`));
+        index += 1;
+        if i % 20 == 0 {
+            test:assertTrue(logLines[index].endsWith(string `"level":"ERROR", "module":"wso2/console_buffer", "message":"request failed", "requestId":${i}}`));
+            index += 1;
+        }
+    }
+    test:assertTrue(logLines[index].endsWith(string `"level":"WARN", "module":"wso2/console_buffer", "message":"processing completed"}`));
+    check sc.close();
+}
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBufferDropBelowLevel() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_DROP_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer-drop`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(1000000);
+    string[] logLines = re `\n`.split(outText.trim());
+
+    int infoCount = 0;
+    int errorCount = 0;
+    int droppedInfoCount = 0;
+    foreach string line in logLines.slice(5) {
+        map<json> logEvent = check (check line.fromJsonString()).ensureType();
+        if logEvent["level"] == "INFO" {
+            infoCount += 1;
+        } else if logEvent["level"] == "ERROR" {
+            errorCount += 1;
+        } else {
+            // The summaries of the dropped log events
+            test:assertEquals(logEvent["module"], "ballerina/log");
+            map<json> dropped = check logEvent["dropped"].ensureType();
+            test:assertFalse(dropped.hasKey("ERROR"));
+            droppedInfoCount += check dropped["INFO"].ensureType(int);
+        }
+    }
+    // The ERROR log events are never dropped, and every dropped log event is accounted for
+    test:assertEquals(errorCount, 5);
+    test:assertEquals(infoCount + droppedInfoCount, 200);
+    check sc.close();
+}
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBufferPriorityLane() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_PRIORITY_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer-priority`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(100000);
+    string[] logLines = re `\n`.split(outText.trim());
+
+    // The WARN log event is written ahead of the INFO log events buffered before it
+    test:assertEquals(logLines.length(), 66, INCORRECT_NUMBER_OF_LINES);
+    test:assertTrue(logLines[5].endsWith(string `"level":"WARN", "module":"wso2/console_buffer_priority", "message":"slow request", "requestId":29}`));
+    foreach int i in 0 ..< 60 {
+        test:assertTrue(logLines[i + 6].endsWith(string `"level":"INFO", "module":"wso2/console_buffer_priority", "message":"processing request", "requestId":${i}}`));
+    }
+    check sc.close();
+}
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBufferOffHeap() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_OFF_HEAP_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer-off-heap`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(1000000);
+    string[] logLines = re `\n`.split(outText.trim());
+
+    // The log events in the arena and the one longer than a segment are all written, in order
+    test:assertEquals(logLines.length(), 106, INCORRECT_NUMBER_OF_LINES);
+    foreach int i in 0 ..< 100 {
+        int index = i < 50 ? i + 5 : i + 6;
+        test:assertTrue(logLines[index].endsWith(string `"level":"INFO", "module":"wso2/console_buffer_off_heap", "message":"processing request", "requestId":${i}}`));
+    }
+    test:assertTrue(logLines[55].includes(string `"message":"large payload"`));
+    check sc.close();
+
+    // The segments in use by the 50 buffered log events are counted in full
+    io:ReadableByteChannel readableOutResult = result.stdout();
+    io:ReadableCharacterChannel sc2 = new (readableOutResult, UTF_8);
+    string outText2 = check sc2.read(100000);
+    map<json> occupancy = check (check outText2.trim().fromJsonString()).ensureType();
+    test:assertEquals(occupancy["capacity"], 65536);
+    int used = check occupancy["used"].ensureType();
+    test:assertTrue(used > 0 && used % 4096 == 0);
+    check sc2.close();
+}
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBufferStriped() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_STRIPED_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer-striped`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(1000000);
+    string[] logLines = re `\n`.split(outText.trim());
+
+    // The log events of the stripes are merged in the logging order, so the log events of each strand are in order
+    test:assertEquals(logLines.length(), 405, INCORRECT_NUMBER_OF_LINES);
+    int[] nextRequestIds = [0, 0, 0, 0];
+    foreach string line in logLines.slice(5) {
+        map<json> logEvent = check (check line.fromJsonString()).ensureType();
+        int workerId = check logEvent["workerId"].ensureType();
+        test:assertEquals(logEvent["requestId"], nextRequestIds[workerId]);
+        nextRequestIds[workerId] += 1;
+    }
+    test:assertEquals(nextRequestIds, [100, 100, 100, 100]);
+    check sc.close();
+}
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBufferGatheringWrites() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_GATHERING_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer-gathering`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(1000000);
+    string[] logLines = re `\n`.split(outText.trim());
+
+    // The log events are written from the arena, whole and in order, after the output of the compiler
+    test:assertEquals(logLines.length(), 209, INCORRECT_NUMBER_OF_LINES);
+    int index = 5;
+    foreach int i in 0 ..< 200 {
+        test:assertTrue(logLines[index].endsWith(string `"level":"INFO", "module":"wso2/console_buffer_gathering", "message":"processing request", "requestId":${i}}`));
+        index += 1;
+        if i % 50 == 0 {
+            test:assertTrue(logLines[index].endsWith(string `"level":"ERROR", "module":"wso2/console_buffer_gathering", "message":"request failed", "requestId":${i}}`));
+            index += 1;
+        }
+    }
+    check sc.close();
+}
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBufferFlushOnPanic() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_EXIT_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer-exit`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(100000);
+    string[] logLines = re `\n`.split(outText.trim());
+
+    // The log events buffered before the explicit flush are written out by it
+    foreach int i in 0 ..< 10 {
+        test:assertTrue(logLines[i + 5].endsWith(string `"message":"processing request", "requestId":${i}}`));
+    }
+    test:assertEquals(logLines[15], "logs flushed");
+
+    // The log events buffered before the panic are written out when the program exits
+    string[] laterLogLines = logLines.slice(16).filter(line => line.includes("\"message\":\"processing request\""));
+    test:assertEquals(laterLogLines.length(), 10);
+    foreach int i in 0 ..< 10 {
+        test:assertTrue(laterLogLines[i].endsWith(string `"requestId":${i + 10}}`));
+    }
+    test:assertTrue(outText.includes("fatal error"));
+    check sc.close();
+}
+
+@test:Config {
+    groups: ["consoleBuffer"]
+}
+function testConsoleBufferOffHeapStalledConsole() returns error? {
+    check removeFile(CONSOLE_BUFFER_STALL_MARKER_FILE, false);
+    Process result = check exec(bal_exec_path, {BAL_CONFIG_FILES: CONSOLE_BUFFER_STALL_CONFIG_FILE}, (), "run", string `${temp_dir_path}/console-buffer-stall`);
+
+    // The standard error is not read until the program has logged all the log events, so the console stalls
+    // while the segments of the arena are being written. The log events are dropped instead of waiting for it
+    int waits = 0;
+    while !fileExists(CONSOLE_BUFFER_STALL_MARKER_FILE) && waits < 1200 {
+        runtime:sleep(0.1);
+        waits += 1;
+    }
+    boolean completed = fileExists(CONSOLE_BUFFER_STALL_MARKER_FILE);
+
+    io:ReadableCharacterChannel sc = new (result.stderr(), UTF_8);
+    string outText = "";
+    while true {
+        string|io:Error chunk = sc.read(65536);
+        if chunk is io:EofError {
+            break;
+        }
+        outText += check chunk;
+    }
+    int _ = check result.waitForExit();
+    check sc.close();
+    test:assertTrue(completed, "The logging strand waited for the stalled console");
+
+    int infoCount = 0;
+    int droppedInfoCount = 0;
+    int lastRequestId = -1;
+    foreach string line in re `\n`.split(outText.trim()).slice(5) {
+        map<json> logEvent = check (check line.fromJsonString()).ensureType();
+        if logEvent["level"] == "INFO" {
+            // The log events which are written are in the logging order
+            int requestId = check logEvent["requestId"].ensureType();
+            test:assertTrue(requestId > lastRequestId);
+            lastRequestId = requestId;
+            infoCount += 1;
+        } else {
+            map<json> dropped = check logEvent["dropped"].ensureType();
+            droppedInfoCount += check dropped["INFO"].ensureType(int);
+        }
+    }
+    test:assertTrue(droppedInfoCount > 0);
+    test:assertEquals(infoCount + droppedInfoCount, 20000);
+}
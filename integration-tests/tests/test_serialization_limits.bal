@@ -0,0 +1,38 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+import ballerina/io;
+
+const SERIALIZATION_LIMITS_CONFIG_FILE = "tests/resources/samples/serialization-limits/Config.toml";
+
+@test:Config {
+    groups: ["serializationLimits"]
+}
+function testSerializationLimits() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: SERIALIZATION_LIMITS_CONFIG_FILE}, (), "run", string `${temp_dir_path}/serialization-limits`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(100000);
+    string[] logLines = re `\n`.split(outText.trim());
+    test:assertEquals(logLines.length(), 7, INCORRECT_NUMBER_OF_LINES);
+    test:assertTrue(logLines[5].includes(string `"level":"INFO", "module":"wso2/serialization_limits", "message":"seria...", "items":[1, 2, "..."], "user":{"name":"Johna...", "address":{"city":"Colom...", "geo":"..."}}}`));
+    test:assertTrue(logLines[6].includes(string `level=INFO module=wso2/serialization_limits message="seria..." items=[1,2,"..."] user={"name":"Johna...","address":{"city":"Colom...","geo":"..."}}`));
+    check sc.close();
+}
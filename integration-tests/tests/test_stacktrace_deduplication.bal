@@ -0,0 +1,90 @@
+// Copyright (c) 2026 WSO2 LLC. (https://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+import ballerina/io;
+
+const STACKTRACE_DEDUPLICATION_CONFIG_FILE = "tests/resources/samples/stacktrace-deduplication/Config.toml";
+const STACKTRACE_DEDUPLICATION_FILES_CONFIG_FILE =
+    "tests/resources/samples/stacktrace-deduplication-files/Config.toml";
+const STACKTRACE_DEDUPLICATION_ROTATED_LOG_FILE = "./build/tmp/output/dedup-rotated.log";
+const STACKTRACE_DEDUPLICATION_LOG_FILE = "./build/tmp/output/dedup.log";
+
+@test:Config {
+    groups: ["stackTraceDeduplication"]
+}
+function testStackTraceDeduplication() returns error? {
+    Process|error execResult = exec(bal_exec_path, {BAL_CONFIG_FILES: STACKTRACE_DEDUPLICATION_CONFIG_FILE}, (), "run", string `${temp_dir_path}/stacktrace-deduplication`);
+    Process result = check execResult;
+    int _ = check result.waitForExit();
+    int _ = check result.exitCode();
+    io:ReadableByteChannel readableResult = result.stderr();
+    io:ReadableCharacterChannel sc = new (readableResult, UTF_8);
+    string outText = check sc.read(100000);
+    string[] logLines = re `\n`.split(outText.trim());
+    test:assertEquals(logLines.length(), 9, INCORRECT_NUMBER_OF_LINES);
+
+    // The first occurrence has the full stack traces along with their IDs
+    test:assertTrue(logLines[5].includes(string `"message":"connection refused", "detail":{}, "stackTrace":[{"callableName":"createError"`));
+    test:assertTrue(logLines[5].includes(string `"message":"request failed", "detail":{"attempt":0}, "stackTrace":[{"callableName":"createError"`));
+    test:assertEquals(countOccurrences(logLines[5], "\"stackTraceId\":"), 2);
+
+    // The repeated occurrences only refer to the stack traces
+    foreach int i in 6 ... 7 {
+        test:assertFalse(logLines[i].includes("\"stackTrace\":"));
+        test:assertTrue(logLines[i].includes(string `"message":"request failed", "detail":{"attempt":${i - 5}}, "stackTraceId":`));
+        test:assertTrue(logLines[i].includes(string `"message":"connection refused", "detail":{}, "stackTraceId":`));
+    }
+
+    // A different stack trace is written in full
+    test:assertTrue(logLines[8].includes(string `"message":"another error", "detail":{}, "stackTrace":[{"callableName":"main"`));
+    check sc.close();
+}
+
+@test:Config {
+    groups: ["stackTraceDeduplication"]
+}
+function testStackTraceDeduplicationPerFile() returns error? {
+    Process result = check exec(bal_exec_path, {BAL_CONFIG_FILES: STACKTRACE_DEDUPLICATION_FILES_CONFIG_FILE}, (),
+            "run", string `${temp_dir_path}/stacktrace-deduplication-files`);
+    test:assertEquals(check result.waitForExit(), 0);
+
+    // The stack traces written in full to the other log file are written in full to this one too, and are only
+    // referred to afterwards
+    string[] logLines = check io:fileReadLines(STACKTRACE_DEDUPLICATION_LOG_FILE);
+    test:assertEquals(logLines.length(), 3, INCORRECT_NUMBER_OF_LINES);
+    test:assertEquals(countOccurrences(logLines[0], "\"stackTrace\":"), 2);
+    foreach int i in 1 ... 2 {
+        test:assertFalse(logLines[i].includes("\"stackTrace\":"));
+        test:assertEquals(countOccurrences(logLines[i], "\"stackTraceId\":"), 2);
+    }
+
+    // The rotation of a log file only writes the stack traces in full again to the new log file
+    string[] rotatedLogLines = check io:fileReadLines(STACKTRACE_DEDUPLICATION_ROTATED_LOG_FILE);
+    test:assertEquals(rotatedLogLines.length(), 1, INCORRECT_NUMBER_OF_LINES);
+    test:assertEquals(countOccurrences(rotatedLogLines[0], "\"stackTrace\":"), 2);
+    test:assertEquals(countOccurrences(rotatedLogLines[0], "\"stackTraceId\":"), 2);
+}
+
+function countOccurrences(string text, string substring) returns int {
+    int count = 0;
+    int? index = text.indexOf(substring);
+    while index is int {
+        count += 1;
+        index = text.indexOf(substring, index + substring.length());
+    }
+    return count;
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes the log files written in the {@link BinaryLogFormat binary log format} to the JSON or the logfmt log
+ * format. The decoder depends only on the JDK, so that it can be run offline with the native library of the module alone:
+ * <pre>
+ * java -cp log-native.jar io.ballerina.stdlib.log.BinaryLogDecoder [--format json|logfmt] &lt;file&gt;...
+ * </pre>
+ *
+ * @since 2.17.0
+ */
+public class BinaryLogDecoder {
+
+    private static final String JSON_FORMAT = "json";
+    private static final String LOGFMT_FORMAT = "logfmt";
+    private static final String FORMAT_OPTION = "--format";
+
+    private final DataInputStream input;
+    private final Writer output;
+    private final boolean logFmt;
+    private final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern(Utils.SIMPLE_DATE_FORMAT);
+    private final List<String> dictionary = new ArrayList<>();
+    private final List<String[]> templates = new ArrayList<>();
+
+    private BinaryLogDecoder(InputStream input, Writer output, boolean logFmt) {
+        this.input = new DataInputStream(input);
+        this.output = output;
+        this.logFmt = logFmt;
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean logFmt = false;
+        int first = 0;
+        if (args.length > 1 && args[0].equals(FORMAT_OPTION)) {
+            if (!args[1].equals(JSON_FORMAT) && !args[1].equals(LOGFMT_FORMAT)) {
+                throw new IllegalArgumentException("Unsupported log format: " + args[1]);
+            }
+            logFmt = args[1].equals(LOGFMT_FORMAT);
+            first = 2;
+        }
+        if (first == args.length) {
+            throw new IllegalArgumentException("Usage: BinaryLogDecoder [--format json|logfmt] <file>...");
+        }
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        for (int i = first; i < args.length; i++) {
+            try (InputStream input = new BufferedInputStream(new FileInputStream(args[i]))) {
+                decode(input, output, logFmt);
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * Decode the log events of a binary log file, writing one log line per event.
+     *
+     * @param input  the binary log file content
+     * @param output the writer to which the log lines are written
+     * @param logFmt whether the log lines are written in the logfmt format instead of the JSON format
+     * @throws IOException if the content could not be read or is not in the binary log format
+     */
+    public static void decode(InputStream input, Writer output, boolean logFmt) throws IOException {
+        new BinaryLogDecoder(input, output, logFmt).decode();
+    }
+
+    private void decode() throws IOException {
+        boolean first = true;
+        while (true) {
+            long length;
+            try {
+                length = readVarLong();
+            } catch (EOFException e) {
+                return;
+            }
+            byte[] record = new byte[(int) length];
+            input.readFully(record);
+            byte type = record.length > 0 ? record[0] : -1;
+            if (first && type != BinaryLogFormat.HEADER_RECORD) {
+                throw new IOException("Not a binary log file");
+            }
+            first = false;
+            DataInputStream recordInput = new DataInputStream(new ByteArrayInputStream(record, 1,
+                    record.length - 1));
+            switch (type) {
+                case BinaryLogFormat.HEADER_RECORD -> readHeader(recordInput);
+                case BinaryLogFormat.DICTIONARY_RECORD -> readDictionaryEntry(recordInput);
+                case BinaryLogFormat.TEMPLATE_RECORD -> readTemplate(recordInput);
+                case BinaryLogFormat.EVENT_RECORD -> writeEvent(recordInput);
+                default -> throw new IOException("Unknown binary log record type: " + type);
+            }
+        }
+    }
+
+    private void readHeader(DataInputStream recordInput) throws IOException {
+        byte[] magic = new byte[BinaryLogFormat.MAGIC.length];
+        recordInput.readFully(magic);
+        if (!Arrays.equals(magic, BinaryLogFormat.MAGIC)) {
+            throw new IOException("Not a binary log file");
+        }
+        byte version = recordInput.readByte();
+        if (version != BinaryLogFormat.VERSION) {
+            throw new IOException("Unsupported binary log format version: " + version);
+        }
+        // A header starts a new log file, or a new segment appended by another process, which has its own
+        // dictionaries
+        dictionary.clear();
+        templates.clear();
+    }
+
+    private void readDictionaryEntry(DataInputStream recordInput) throws IOException {
+        int id = (int) readVarLong(recordInput);
+        String name = readString(recordInput);
+        if (id != dictionary.size()) {
+            throw new IOException("Invalid binary log dictionary ID: " + id);
+        }
+        dictionary.add(name);
+    }
+
+    private void readTemplate(DataInputStream recordInput) throws IOException {
+        int id = (int) readVarLong(recordInput);
+        String[] strings = new String[(int) readVarLong(recordInput)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(recordInput);
+        }
+        if (id != templates.size() || strings.length == 0) {
+            throw new IOException("Invalid binary log template ID: " + id);
+        }
+        templates.add(strings);
+    }
+
+    private String readMessage(DataInputStream recordInput) throws IOException {
+        byte type = recordInput.readByte();
+        if (type == BinaryLogFormat.TEXT_MESSAGE) {
+            return readString(recordInput);
+        }
+        if (type != BinaryLogFormat.TEMPLATE_MESSAGE) {
+            throw new IOException("Unknown binary log message type: " + type);
+        }
+        long id = readVarLong(recordInput);
+        if (id < 0 || id >= templates.size()) {
+            throw new IOException("Unknown binary log template ID: " + id);
+        }
+        String[] strings = templates.get((int) id);
+        StringBuilder message = new StringBuilder(strings[0]);
+        for (int i = 1; i < strings.length; i++) {
+            message.append(readString(recordInput)).append(strings[i]);
+        }
+        return message.toString();
+    }
+
+    private void writeEvent(DataInputStream recordInput) throws IOException {
+        StringBuilder line = new StringBuilder();
+        long millis = readVarLong(recordInput);
+        long offsetZigzag = readVarLong(recordInput);
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) ((offsetZigzag >>> 1) ^ -(offsetZigzag & 1)) * 60);
+        String time = dateFormat.format(Instant.ofEpochMilli(millis).atOffset(offset));
+        int level = recordInput.readUnsignedByte();
+        String module = lookup(readVarLong(recordInput));
+        String message = readMessage(recordInput);
+        String levelName = level < BinaryLogFormat.LEVELS.length ? BinaryLogFormat.LEVELS[level] : "";
+        if (logFmt) {
+            // The time, the level and the module are not quoted in the logfmt format
+            appendRaw(line, "time", time);
+            appendRaw(line, "level", levelName);
+            appendRaw(line, "module", module.isEmpty() ? "\"\"" : module);
+        } else {
+            appendString(line, "time", time);
+            appendString(line, "level", levelName);
+            appendString(line, "module", module);
+        }
+        appendString(line, "message", message);
+        long fieldCount = readVarLong(recordInput);
+        for (long i = 0; i < fieldCount; i++) {
+            String key = lookup(readVarLong(recordInput));
+            byte tag = recordInput.readByte();
+            switch (tag) {
+                case BinaryLogFormat.NIL_VALUE -> appendRaw(line, key, logFmt ? "" : "null");
+                case BinaryLogFormat.FALSE_VALUE -> appendRaw(line, key, "false");
+                case BinaryLogFormat.TRUE_VALUE -> appendRaw(line, key, "true");
+                case BinaryLogFormat.INT_VALUE -> {
+                    long zigzag = readVarLong(recordInput);
+                    appendRaw(line, key, Long.toString((zigzag >>> 1) ^ -(zigzag & 1)));
+                }
+                case BinaryLogFormat.FLOAT_VALUE ->
+                        appendRaw(line, key, Double.toString(recordInput.readDouble()));
+                case BinaryLogFormat.DECIMAL_VALUE, BinaryLogFormat.JSON_VALUE ->
+                        appendRaw(line, key, readString(recordInput));
+                case BinaryLogFormat.STRING_VALUE -> appendString(line, key, readString(recordInput));
+                default -> throw new IOException("Unknown binary log value type: " + tag);
+            }
+        }
+        if (!logFmt) {
+            line.insert(0, '{').append('}');
+        }
+        output.write(line.toString());
+        output.write(System.lineSeparator());
+    }
+
+    private String lookup(long id) throws IOException {
+        if (id < 0 || id >= dictionary.size()) {
+            throw new IOException("Unknown binary log dictionary ID: " + id);
+        }
+        return dictionary.get((int) id);
+    }
+
+    private void appendString(StringBuilder line, String key, String value) {
+        appendKey(line, key);
+        line.append('"');
+        if (logFmt) {
+            appendLogFmtEscaped(line, value);
+        } else {
+            appendJsonEscaped(line, value);
+        }
+        line.append('"');
+    }
+
+    private void appendRaw(StringBuilder line, String key, String value) {
+        appendKey(line, key);
+        line.append(value);
+    }
+
+    private void appendKey(StringBuilder line, String key) {
+        if (logFmt) {
+            if (!line.isEmpty()) {
+                line.append(' ');
+            }
+            line.append(key).append('=');
+        } else {
+            if (!line.isEmpty()) {
+                line.append(", ");
+            }
+            line.append('"');
+            appendJsonEscaped(line, key);
+            line.append("\":");
+        }
+    }
+
+    private static void appendLogFmtEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\'' -> line.append("\\'");
+                case '"' -> line.append("\\\"");
+                default -> line.append(c);
+            }
+        }
+    }
+
+    private static void appendJsonEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '"' -> line.append("\\\"");
+                case '\b' -> line.append("\\b");
+                case '\f' -> line.append("\\f");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private long readVarLong() throws IOException {
+        return readVarLong(input);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid binary log variable length integer");
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+/**
+ * Constants of the binary log format, shared by {@link BinaryLogWriter} and {@link BinaryLogDecoder}. A binary
+ * log file is a sequence of records, each of which is a variable length integer with the length of the record
+ * followed by the record type and the record content:
+ * <ul>
+ *     <li>header: the magic bytes and the format version. Starts the file, and each segment appended to the
+ *     file by a later process, with empty dictionaries.</li>
+ *     <li>dictionary: the ID and the name of a key or a module, which the events refer to by the ID.</li>
+ *     <li>template: the ID, the number of strings and the strings of a message template, which the events
+ *     refer to by the ID.</li>
+ *     <li>event: the time of the log record in milliseconds since the epoch and its zigzag encoded UTC offset
+ *     in minutes, the level, the module ID, the message, and the number of the other fields followed by the key
+ *     ID and the typed value of each field. The message is either the text, or the template ID followed by the
+ *     evaluated insertions.</li>
+ * </ul>
+ * Strings are written as the length of their UTF-8 bytes followed by the bytes.
+ *
+ * @since 2.17.0
+ */
+final class BinaryLogFormat {
+
+    static final byte[] MAGIC = {'B', 'L', 'O', 'G'};
+    static final byte VERSION = 1;
+
+    static final byte HEADER_RECORD = 0;
+    static final byte DICTIONARY_RECORD = 1;
+    static final byte EVENT_RECORD = 2;
+    static final byte TEMPLATE_RECORD = 3;
+
+    static final byte TEXT_MESSAGE = 0;
+    static final byte TEMPLATE_MESSAGE = 1;
+
+    static final byte NIL_VALUE = 0;
+    static final byte FALSE_VALUE = 1;
+    static final byte TRUE_VALUE = 2;
+    // Zigzag encoded variable length integer
+    static final byte INT_VALUE = 3;
+    // IEEE 754 double in the big-endian byte order
+    static final byte FLOAT_VALUE = 4;
+    // String form of the decimal
+    static final byte DECIMAL_VALUE = 5;
+    static final byte STRING_VALUE = 6;
+    // JSON text of the structured values
+    static final byte JSON_VALUE = 7;
+
+    // Level names, indexed by the level byte of the events
+    static final String[] LEVELS = {"", "ERROR", "WARN", "INFO", "DEBUG"};
+
+    private BinaryLogFormat() {
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.SyncFailedException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.ballerina.stdlib.log.BinaryLogFormat.DECIMAL_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.DICTIONARY_RECORD;
+import static io.ballerina.stdlib.log.BinaryLogFormat.EVENT_RECORD;
+import static io.ballerina.stdlib.log.BinaryLogFormat.FALSE_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.FLOAT_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.HEADER_RECORD;
+import static io.ballerina.stdlib.log.BinaryLogFormat.INT_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.JSON_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.LEVELS;
+import static io.ballerina.stdlib.log.BinaryLogFormat.MAGIC;
+import static io.ballerina.stdlib.log.BinaryLogFormat.NIL_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.STRING_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.TEMPLATE_MESSAGE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.TEMPLATE_RECORD;
+import static io.ballerina.stdlib.log.BinaryLogFormat.TEXT_MESSAGE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.TRUE_VALUE;
+import static io.ballerina.stdlib.log.BinaryLogFormat.VERSION;
+
+/**
+ * Writes the log events to the log files in the compact {@link BinaryLogFormat binary log format}. The keys and
+ * the module names are written once per file and referred to by their IDs in the events, and the values keep
+ * their types, so that numbers and booleans are not formatted as text. When enabled, the message templates are
+ * interned in the same way, so that the events carry only the template ID and the insertions. The files are
+ * decoded offline with {@link BinaryLogDecoder}.
+ *
+ * @since 2.17.0
+ */
+public class BinaryLogWriter {
+
+    private static final String TIME_KEY = "time";
+    private static final String LEVEL_KEY = "level";
+    private static final String MODULE_KEY = "module";
+    private static final String MESSAGE_KEY = "message";
+    private static final BString TIME = StringUtils.fromString(TIME_KEY);
+    private static final BString LEVEL = StringUtils.fromString(LEVEL_KEY);
+    private static final BString MODULE = StringUtils.fromString(MODULE_KEY);
+    private static final BString INTERN_MESSAGES_KEY = StringUtils.fromString("internMessages");
+    private static final BString MAX_INTERNED_MESSAGES_KEY = StringUtils.fromString("maxInternedMessages");
+    private static final BString TEMPLATE_STRINGS_FIELD = StringUtils.fromString("strings");
+    private static final BString TEMPLATE_INSERTIONS_FIELD = StringUtils.fromString("insertions");
+    private static final String[] NO_INSERTIONS = new String[0];
+
+    private static final Map<String, BinaryLogWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private static volatile boolean internMessages = false;
+    private static volatile int maxInternedMessages = 0;
+
+    private final String path;
+    private final File file;
+    // Whether this process has started a segment in the log file, reset when the log file is truncated or rotated
+    private boolean started = false;
+    // Key or module name -> dictionary ID, for the current log file
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    // Strings of the message template -> template ID, for the current log file
+    private final Map<List<String>, Integer> templates = new HashMap<>();
+
+    private BinaryLogWriter(String filePath) {
+        this.path = filePath;
+        this.file = new File(filePath);
+    }
+
+    /**
+     * Initialize the binary log format. Called once from the module init.
+     *
+     * @param config the configured `log:BinaryFormatConfig` record
+     * @return a BError if the configuration is invalid, null otherwise
+     */
+    public static Object initBinaryFormat(BMap<BString, Object> config) {
+        long maxMessages = (Long) config.get(MAX_INTERNED_MESSAGES_KEY);
+        if (maxMessages <= 0) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "Invalid binary format configuration: maxInternedMessages should be positive"));
+        }
+        maxInternedMessages = (int) Math.min(maxMessages, Integer.MAX_VALUE);
+        internMessages = (Boolean) config.get(INTERN_MESSAGES_KEY);
+        return null;
+    }
+
+    /**
+     * Evaluate the message of a log event once for all the binary log files it is written to.
+     *
+     * @param env                        the Ballerina environment
+     * @param msg                        the message, either a string or a `log:PrintableRawTemplate`
+     * @param enableSensitiveDataMasking whether the sensitive data masking is applied
+     * @return the evaluated message
+     */
+    public static Object prepareBinaryMessage(Environment env, Object msg, boolean enableSensitiveDataMasking) {
+        // The masking patterns apply to the whole message, which cannot be split into a template then
+        boolean patternMasking = enableSensitiveDataMasking && PatternMasker.hasPatterns();
+        if (!internMessages || patternMasking) {
+            String text;
+            if (msg instanceof BObject template) {
+                try (MaskedStringBuilder builder = MaskedStringBuilder.createTemplate(env.getRuntime(),
+                        enableSensitiveDataMasking)) {
+                    text = builder.buildTemplate(template);
+                }
+            } else {
+                text = ((BString) msg).getValue();
+            }
+            return new Message(null, patternMasking ? PatternMasker.maskPatterns(StringUtils.fromString(text))
+                    .getValue() : text, NO_INSERTIONS);
+        }
+        if (msg instanceof BString text) {
+            return new Message(List.of(text.getValue()), null, NO_INSERTIONS);
+        }
+        BObject template = (BObject) msg;
+        BArray strings = template.getArrayValue(TEMPLATE_STRINGS_FIELD);
+        BArray insertions = template.getArrayValue(TEMPLATE_INSERTIONS_FIELD);
+        List<String> parts = new ArrayList<>(strings.size());
+        for (int i = 0; i < strings.size(); i++) {
+            parts.add(strings.getBString(i).getValue());
+        }
+        String[] evaluated = new String[strings.size() - 1];
+        try (MaskedStringBuilder builder = MaskedStringBuilder.createTemplate(env.getRuntime(),
+                enableSensitiveDataMasking)) {
+            for (int i = 0; i < evaluated.length; i++) {
+                evaluated[i] = builder.buildInsertion(insertions.get(i));
+            }
+        }
+        return new Message(parts, null, evaluated);
+    }
+
+    /**
+     * Start a new segment on the next write to the log file, which has been truncated.
+     *
+     * @param filePath the path of the log file
+     */
+    public static void resetBinaryLog(BString filePath) {
+        reset(filePath.getValue());
+    }
+
+    /**
+     * Start a new segment on the next write to the log file, which has been truncated or rotated.
+     *
+     * @param filePath the path of the log file
+     */
+    static void reset(String filePath) {
+        BinaryLogWriter writer = WRITERS.get(filePath);
+        if (writer != null) {
+            writer.restart();
+        }
+    }
+
+    private synchronized void restart() {
+        started = false;
+    }
+
+    /**
+     * Write the log record to the log file in the binary log format.
+     *
+     * @param env                        the Ballerina environment
+     * @param filePath                   the path of the log file
+     * @param logRecord                  the log record
+     * @param message                    the message prepared with {@link #prepareBinaryMessage}
+     * @param enableSensitiveDataMasking whether the sensitive data masking is applied
+     * @return a BError if the log record could not be written, null otherwise
+     */
+    public static Object writeBinaryLog(Environment env, BString filePath, BMap<BString, Object> logRecord,
+                                        Object message, boolean enableSensitiveDataMasking) {
+        BinaryLogWriter writer = WRITERS.computeIfAbsent(filePath.getValue(), BinaryLogWriter::new);
+        try {
+            writer.write(env.getRuntime(), logRecord, (Message) message, enableSensitiveDataMasking);
+            return null;
+        } catch (SyncFailedException e) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "failed to sync the log output to the disk: " + e.getMessage()));
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "failed to write log output to the file: " + e.getMessage()));
+        }
+    }
+
+    private synchronized void write(Runtime runtime, BMap<BString, Object> logRecord, Message message,
+                                    boolean masking) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(256);
+        // Each process starts a new segment with a header and empty dictionaries, so that the segments appended by
+        // the earlier processes keep their own dictionaries. So do the truncated and the rotated log files.
+        if (!started) {
+            dictionary.clear();
+            templates.clear();
+            output.write(1 + MAGIC.length + 1);
+            output.write(HEADER_RECORD);
+            output.write(MAGIC);
+            output.write(VERSION);
+        }
+        int dictionarySize = dictionary.size();
+        int templateCount = templates.size();
+        boolean written = false;
+        try {
+            ByteArrayOutputStream event = new ByteArrayOutputStream(256);
+            event.write(EVENT_RECORD);
+            writeTime(event, logRecord.getStringValue(TIME).getValue());
+            event.write(getLevel(logRecord.getStringValue(LEVEL).getValue()));
+            writeVarLong(event, getId(output, logRecord.getStringValue(MODULE).getValue()));
+            writeMessage(output, event, message);
+            // The fields are counted as they are written, since the log record may lack any of the event keys
+            ByteArrayOutputStream fields = new ByteArrayOutputStream(256);
+            int fieldCount = 0;
+            for (Map.Entry<BString, Object> entry : logRecord.entrySet()) {
+                String key = entry.getKey().getValue();
+                if (isEventKey(key)) {
+                    continue;
+                }
+                writeVarLong(fields, getId(output, key));
+                writeValue(fields, runtime, key, entry.getValue(), masking);
+                fieldCount++;
+            }
+            writeVarLong(event, fieldCount);
+            fields.writeTo(event);
+            writeVarLong(output, event.size());
+            event.writeTo(output);
+            try (FileOutputStream stream = new FileOutputStream(file, true)) {
+                output.writeTo(stream);
+                written = true;
+                started = true;
+                FileSync.afterWrite(path, stream.getChannel(), logRecord.getStringValue(LEVEL).getValue());
+            }
+        } catch (IOException | RuntimeException e) {
+            if (written) {
+                // Only the sync failed, so the file has the records of this event
+                throw e;
+            }
+            // The file does not have the dictionary and the template records of this event
+            if (dictionary.size() != dictionarySize) {
+                dictionary.values().removeIf(id -> id >= dictionarySize);
+            }
+            if (templates.size() != templateCount) {
+                templates.values().removeIf(id -> id >= templateCount);
+            }
+            throw e;
+        }
+    }
+
+    private void writeMessage(ByteArrayOutputStream output, ByteArrayOutputStream event, Message message)
+            throws IOException {
+        if (message.template == null) {
+            event.write(TEXT_MESSAGE);
+            writeString(event, message.text);
+            return;
+        }
+        Integer id = templates.get(message.template);
+        if (id == null && templates.size() >= maxInternedMessages) {
+            // The template dictionary of the file is full
+            event.write(TEXT_MESSAGE);
+            writeString(event, message.evaluate());
+            return;
+        }
+        if (id == null) {
+            id = templates.size();
+            templates.put(message.template, id);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            record.write(TEMPLATE_RECORD);
+            writeVarLong(record, id);
+            writeVarLong(record, message.template.size());
+            for (String part : message.template) {
+                writeString(record, part);
+            }
+            writeVarLong(output, record.size());
+            record.writeTo(output);
+        }
+        event.write(TEMPLATE_MESSAGE);
+        writeVarLong(event, id);
+        for (String insertion : message.insertions) {
+            writeString(event, insertion);
+        }
+    }
+
+    private int getId(ByteArrayOutputStream output, String name) throws IOException {
+        Integer id = dictionary.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = dictionary.size();
+        dictionary.put(name, newId);
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        record.write(DICTIONARY_RECORD);
+        writeVarLong(record, newId);
+        writeString(record, name);
+        writeVarLong(output, record.size());
+        record.writeTo(output);
+        return newId;
+    }
+
+    private static void writeTime(ByteArrayOutputStream output, String time) {
+        // The time of the log record is written as is, along with its UTC offset, so that the decoded time is the
+        // same as in the text log formats
+        long millis;
+        int offsetMinutes;
+        try {
+            OffsetDateTime dateTime = OffsetDateTime.parse(time, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            millis = dateTime.toInstant().toEpochMilli();
+            offsetMinutes = dateTime.getOffset().getTotalSeconds() / 60;
+        } catch (DateTimeParseException e) {
+            millis = System.currentTimeMillis();
+            offsetMinutes = TimeZone.getDefault().getOffset(millis) / 60000;
+        }
+        writeVarLong(output, millis);
+        writeVarLong(output, ((long) offsetMinutes << 1) ^ (offsetMinutes >> 31));
+    }
+
+    private static boolean isEventKey(String key) {
+        return TIME_KEY.equals(key) || LEVEL_KEY.equals(key) || MODULE_KEY.equals(key) || MESSAGE_KEY.equals(key);
+    }
+
+    private static int getLevel(String level) {
+        for (int i = 1; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static void writeValue(ByteArrayOutputStream output, Runtime runtime, String key, Object value,
+                                   boolean masking) throws IOException {
+        String replacement = masking ? SensitiveKeyMatcher.getReplacement(key) : null;
+        if (replacement != null) {
+            output.write(STRING_VALUE);
+            writeString(output, replacement);
+        } else if (value == null) {
+            output.write(NIL_VALUE);
+        } else if (value instanceof Boolean booleanValue) {
+            output.write(booleanValue ? TRUE_VALUE : FALSE_VALUE);
+        } else if (value instanceof Long longValue) {
+            output.write(INT_VALUE);
+            // Zigzag encoding keeps the small negative numbers short
+            writeVarLong(output, (longValue << 1) ^ (longValue >> 63));
+        } else if (value instanceof Double doubleValue) {
+            output.write(FLOAT_VALUE);
+            long bits = Double.doubleToLongBits(doubleValue);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                output.write((int) (bits >>> shift));
+            }
+        } else if (value instanceof BDecimal) {
+            output.write(DECIMAL_VALUE);
+            writeString(output, StringUtils.getStringValue(value));
+        } else if (value instanceof BString stringValue) {
+            output.write(STRING_VALUE);
+            writeString(output, stringValue.getValue());
+        } else {
+            output.write(JSON_VALUE);
+            if (masking) {
+                try (MaskedStringBuilder builder = MaskedStringBuilder.create(runtime)) {
+                    writeString(output, builder.build(value));
+                }
+            } else {
+                writeString(output, StringUtils.getJsonString(value));
+            }
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    /**
+     * The evaluated message of a log event. Either the text of the message, or the strings of the message
+     * template along with the evaluated insertions.
+     */
+    private static final class Message {
+
+        private final List<String> template;
+        private final String text;
+        private final String[] insertions;
+
+        private Message(List<String> template, String text, String[] insertions) {
+            this.template = template;
+            this.text = text;
+            this.insertions = insertions;
+        }
+
+        private String evaluate() {
+            StringBuilder builder = new StringBuilder(template.get(0));
+            for (int i = 0; i < insertions.length; i++) {
+                builder.append(insertions[i]).append(template.get(i + 1));
+            }
+            return builder.toString();
+        }
+    }
+}
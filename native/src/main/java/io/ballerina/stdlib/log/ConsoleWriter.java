@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the log output to the standard output and the standard error through bounded buffers, so that the log
+ * events are written with a single write per buffer instead of one per event. Each log event is written as a
+ * whole. The buffers are flushed on a short interval, on each ERROR log event and by the {@link LogFlusher}.
+ * <p>
+ * When the next log event does not fit in a buffer, the configured backpressure policy decides whether the
+ * logging strand waits for the buffer to be written, or the log events are dropped. Other than with the
+ * {@code BLOCK} policy, the buffers are written by a background thread, so that a slow console does not block
+ * the logging strands. Only the severe log events, which the {@code DROP_BELOW_LEVEL} policy never drops, wait
+ * for a full buffer. With the off-heap mode, the segments of the arena being written cannot be reused until the
+ * console has written them, so when no room can be made for a log event, it is dropped, or kept on the heap if
+ * it is a severe log event. The dropped log events are counted per stream and level, and summarized periodically
+ * in a log line of their own.
+ * <p>
+ * With the priority lane, the log events at or above the priority level are queued apart from the less severe
+ * log events, and are written ahead of them on the next flush, which is scheduled right away. So an ERROR log
+ * event does not wait behind a burst of DEBUG log events, at the cost of the severe log events appearing before
+ * the less severe log events buffered earlier.
+ * <p>
+ * With the off-heap mode, the buffered log events are copied into an {@link OffHeapArena} instead of being kept
+ * on the heap until they are written, so that a burst of log events does not grow the heap. A log event longer
+ * than a segment of the arena is kept on the heap, and is written right away.
+ * <p>
+ * A buffer can be split into stripes, each with an equal share of the capacity, so that the logging threads,
+ * which are spread to the stripes by their IDs, do not contend for a single lock. The backpressure policy is
+ * applied per stripe. The log events are stamped with the monotonic clock when they are buffered, so that the
+ * log events of all the stripes are merged in the order in which they were logged when the buffer is written,
+ * without the logging threads contending for a shared counter.
+ * <p>
+ * With the gathering writes, a buffer is written straight to the file descriptor of its stream with a single
+ * gathering write of the buffered log events, instead of being copied into a contiguous array first. The log
+ * events in the off-heap arenas are then written without being copied at all.
+ *
+ * @since 2.17.0
+ */
+public class ConsoleWriter {
+
+    private static final BString ENABLED_KEY = StringUtils.fromString("enabled");
+    private static final BString BUFFER_SIZE_KEY = StringUtils.fromString("bufferSize");
+    private static final BString FLUSH_INTERVAL_KEY = StringUtils.fromString("flushInterval");
+    private static final BString BACKPRESSURE_POLICY_KEY = StringUtils.fromString("backpressurePolicy");
+    private static final BString DROP_BELOW_LEVEL_KEY = StringUtils.fromString("dropBelowLevel");
+    private static final BString DROP_SUMMARY_INTERVAL_KEY = StringUtils.fromString("dropSummaryInterval");
+    private static final BString PRIORITY_LANE_KEY = StringUtils.fromString("priorityLane");
+    private static final BString PRIORITY_LEVEL_KEY = StringUtils.fromString("priorityLevel");
+    private static final BString OFF_HEAP_KEY = StringUtils.fromString("offHeap");
+    private static final BString SEGMENT_SIZE_KEY = StringUtils.fromString("segmentSize");
+    private static final BString STRIPES_KEY = StringUtils.fromString("stripes");
+    private static final BString GATHERING_WRITES_KEY = StringUtils.fromString("gatheringWrites");
+
+    private static final String BLOCK_POLICY = "BLOCK";
+    private static final String DROP_NEWEST_POLICY = "DROP_NEWEST";
+    private static final String DROP_OLDEST_POLICY = "DROP_OLDEST";
+    private static final String JSON_FORMAT = "json";
+    private static final String ERROR_LEVEL = "ERROR";
+    // Levels in the descending order of severity
+    private static final String[] LEVELS = {ERROR_LEVEL, "WARN", "INFO", "DEBUG"};
+    private static final Comparator<Event> LOGGING_ORDER = Comparator.comparingLong(Event::timestamp);
+
+    private static volatile ConsoleWriter stdout = null;
+    private static volatile ConsoleWriter stderr = null;
+    private static volatile ScheduledExecutorService scheduler = null;
+
+    private final PrintStream stream;
+    // Null if the buffers are written through the stream
+    private final FileChannel channel;
+    private final Stripe[] stripes;
+    private final int capacity;
+    // Length of the longest log event which is buffered, the longer ones are written right away
+    private final int maxEventLength;
+    private final String policy;
+    // Index of the least severe level which is never dropped by the DROP_BELOW_LEVEL policy
+    private final int dropBelowLevel;
+    private final long dropSummaryInterval;
+    private final boolean jsonSummary;
+    // Index of the least severe level queued in the priority lane, -1 if the priority lane is disabled
+    private final int priorityLevel;
+    // Keeps the order of the writes to the stream
+    private final Object writeLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    // Guarded by writeLock
+    private final long[] dropped = new long[LEVELS.length];
+    private long lastDropSummary = System.currentTimeMillis();
+    // Guarded by writeLock. Used to write out the log events in the arenas
+    private final byte[] transfer;
+
+    private ConsoleWriter(PrintStream stream, FileChannel channel, int capacity, int segmentSize, int stripeCount,
+                          String policy, int dropBelowLevel, long dropSummaryInterval, boolean jsonSummary,
+                          int priorityLevel) {
+        this.stream = stream;
+        this.channel = channel;
+        this.policy = policy;
+        this.dropBelowLevel = dropBelowLevel;
+        this.dropSummaryInterval = dropSummaryInterval;
+        this.jsonSummary = jsonSummary;
+        this.priorityLevel = priorityLevel;
+        int stripeCapacity = capacity / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i, stripeCapacity, segmentSize);
+        }
+        this.capacity = stripeCount * stripes[0].capacity;
+        this.maxEventLength = segmentSize > 0 ? segmentSize : stripeCapacity;
+        this.transfer = segmentSize > 0 ? new byte[segmentSize] : null;
+    }
+
+    /**
+     * Initialize the console buffers. Called once from the module init.
+     *
+     * @param config the configured `log:ConsoleBufferConfig` record
+     * @param format the log format of the module, in which the summaries of the dropped log events are written
+     * @return a BError if the configuration is invalid, null otherwise
+     */
+    public static Object initConsoleBuffer(BMap<BString, Object> config, BString format) {
+        if (!(Boolean) config.get(ENABLED_KEY)) {
+            return null;
+        }
+        long bufferSize = (Long) config.get(BUFFER_SIZE_KEY);
+        long flushInterval = toMillis(config.get(FLUSH_INTERVAL_KEY));
+        long dropSummaryInterval = toMillis(config.get(DROP_SUMMARY_INTERVAL_KEY));
+        if (bufferSize <= 0 || flushInterval <= 0 || dropSummaryInterval <= 0) {
+            return ErrorCreator.createError(StringUtils.fromString("Invalid console buffer configuration: " +
+                    "bufferSize, flushInterval and dropSummaryInterval should be positive"));
+        }
+        int capacity = (int) Math.min(bufferSize, Integer.MAX_VALUE - 8);
+        long stripeCount = (Long) config.get(STRIPES_KEY);
+        if (stripeCount <= 0 || stripeCount > capacity) {
+            return ErrorCreator.createError(StringUtils.fromString("Invalid console buffer configuration: " +
+                    "stripes should be positive and not larger than bufferSize"));
+        }
+        int segmentSize = 0;
+        if ((Boolean) config.get(OFF_HEAP_KEY)) {
+            long configuredSegmentSize = (Long) config.get(SEGMENT_SIZE_KEY);
+            if (configuredSegmentSize <= 0 || configuredSegmentSize > capacity / stripeCount) {
+                return ErrorCreator.createError(StringUtils.fromString("Invalid console buffer configuration: " +
+                        "segmentSize should be positive and not larger than the share of a stripe of bufferSize"));
+            }
+            segmentSize = (int) configuredSegmentSize;
+        }
+        String policy = config.getStringValue(BACKPRESSURE_POLICY_KEY).getValue();
+        int dropBelowLevel = getLevelIndex(config.getStringValue(DROP_BELOW_LEVEL_KEY).getValue());
+        boolean jsonSummary = JSON_FORMAT.equals(format.getValue());
+        int priorityLevel = (Boolean) config.get(PRIORITY_LANE_KEY) ?
+                getLevelIndex(config.getStringValue(PRIORITY_LEVEL_KEY).getValue()) : -1;
+        boolean gatheringWrites = (Boolean) config.get(GATHERING_WRITES_KEY);
+        stdout = new ConsoleWriter(System.out, gatheringWrites ? openChannel(FileDescriptor.out) : null, capacity,
+                segmentSize, (int) stripeCount, policy, dropBelowLevel, dropSummaryInterval, jsonSummary,
+                priorityLevel);
+        stderr = new ConsoleWriter(System.err, gatheringWrites ? openChannel(FileDescriptor.err) : null, capacity,
+                segmentSize, (int) stripeCount, policy, dropBelowLevel, dropSummaryInterval, jsonSummary,
+                priorityLevel);
+
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ballerina-log-console-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(ConsoleWriter::flushAll, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        // The buffered log events are written out by the LogFlusher when the program exits
+        scheduler = flusher;
+        return null;
+    }
+
+    /**
+     * Write the encoded log output of an event to the console buffer.
+     *
+     * @param output   the bytes encoded with {@link LogFileWriter#encodeLogOutput}
+     * @param toStderr whether the output is written to the standard error, otherwise to the standard output
+     * @param level    the level of the log event. The buffer is flushed after the ERROR log events
+     */
+    public static void writeToConsole(Object output, boolean toStderr, BString level) {
+        ConsoleWriter writer = toStderr ? stderr : stdout;
+        writer.write((byte[]) output, getLevelIndex(level.getValue()));
+    }
+
+    /**
+     * Get the capacity of a console buffer.
+     *
+     * @param toStderr whether the buffer of the standard error is queried, otherwise of the standard output
+     * @return the capacity in bytes, or 0 if the console buffering is not enabled
+     */
+    public static long getConsoleBufferCapacity(boolean toStderr) {
+        ConsoleWriter writer = toStderr ? stderr : stdout;
+        return writer == null ? 0 : writer.capacity;
+    }
+
+    /**
+     * Get the number of bytes of a console buffer in use by the buffered log events. With the off-heap mode, the
+     * segments of the arena in use are counted in full.
+     *
+     * @param toStderr whether the buffer of the standard error is queried, otherwise of the standard output
+     * @return the number of bytes in use, or 0 if the console buffering is not enabled
+     */
+    public static long getConsoleBufferUsage(boolean toStderr) {
+        ConsoleWriter writer = toStderr ? stderr : stdout;
+        if (writer == null) {
+            return 0;
+        }
+        long usedBytes = 0;
+        for (Stripe stripe : writer.stripes) {
+            synchronized (stripe) {
+                usedBytes += stripe.usedBytes();
+            }
+        }
+        return usedBytes;
+    }
+
+    /**
+     * Flush the buffered log output to the standard output and the standard error.
+     */
+    static void flushAll() {
+        ConsoleWriter out = stdout;
+        ConsoleWriter err = stderr;
+        if (out != null) {
+            out.flush();
+        }
+        if (err != null) {
+            err.flush();
+        }
+    }
+
+    private void write(byte[] line, int level) {
+        Stripe stripe = stripes.length == 1 ? stripes[0] :
+                stripes[(int) (Thread.currentThread().threadId() % stripes.length)];
+        boolean flushNow = false;
+        boolean onHeap = false;
+        boolean halfFull = false;
+        synchronized (stripe) {
+            if (line.length <= maxEventLength && !stripe.hasRoom(line.length)) {
+                if (BLOCK_POLICY.equals(policy)) {
+                    flushNow = true;
+                } else if (DROP_NEWEST_POLICY.equals(policy) ||
+                        (!DROP_OLDEST_POLICY.equals(policy) && level > dropBelowLevel)) {
+                    stripe.dropped[level]++;
+                    scheduleFlush();
+                    return;
+                } else {
+                    stripe.dropEvents(line.length);
+                    if (!stripe.hasRoom(line.length)) {
+                        // The room is held by the log events which cannot be dropped, such as those in the
+                        // segments of the arena being written. The logging strand does not wait for the console
+                        if (DROP_OLDEST_POLICY.equals(policy)) {
+                            stripe.dropped[level]++;
+                            scheduleFlush();
+                            return;
+                        }
+                        // The severe log events are never dropped. They wait for the buffer to be written, other
+                        // than with the arena, where they are kept on the heap instead
+                        onHeap = stripe.arena != null;
+                        flushNow = !onHeap;
+                    }
+                }
+            }
+            if (!flushNow) {
+                halfFull = stripe.append(line, level, onHeap);
+            }
+        }
+        while (flushNow) {
+            // The logging strand waits for the buffer to be written, until the other strands of the stripe leave
+            // room for the log event
+            flush();
+            synchronized (stripe) {
+                flushNow = !stripe.hasRoom(line.length);
+                if (!flushNow) {
+                    halfFull = stripe.append(line, level, false);
+                }
+            }
+        }
+        if (level == 0 || line.length > maxEventLength) {
+            if (BLOCK_POLICY.equals(policy)) {
+                flush();
+            } else {
+                scheduleFlush();
+            }
+        } else if (level <= priorityLevel || halfFull) {
+            // The log events in the priority lane are written right away, and the other log events are written
+            // ahead of the interval once the buffer is half full, so that the buffer does not fill up
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        ScheduledExecutorService flusher = scheduler;
+        if (flusher != null && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    private void flush() {
+        synchronized (writeLock) {
+            List<Event> priorityBatch = new ArrayList<>();
+            List<Event> batch = new ArrayList<>();
+            // The log events are stamped under the locks of their stripes, so all the log events stamped before
+            // the cutoff are in the stripes by the time their locks are taken. The later ones are left for the
+            // next flush, so that they are not written ahead of the earlier ones in the stripes drained already
+            long cutoff = stripes.length == 1 ? Long.MAX_VALUE : System.nanoTime();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.drain(priorityBatch, batch, cutoff);
+                }
+            }
+            byte[] summary = null;
+            long now = System.currentTimeMillis();
+            if (now - lastDropSummary >= dropSummaryInterval) {
+                summary = buildDropSummary(now);
+                lastDropSummary = now;
+            }
+            if (priorityBatch.isEmpty() && batch.isEmpty() && summary == null) {
+                return;
+            }
+            if (stripes.length > 1) {
+                priorityBatch.sort(LOGGING_ORDER);
+                batch.sort(LOGGING_ORDER);
+            }
+            // Written outside the buffer locks, so that the logging strands are not blocked by the console
+            if (channel != null) {
+                writeGathering(priorityBatch, batch, summary);
+            } else {
+                writeToStream(priorityBatch, batch, summary);
+            }
+            if (transfer != null) {
+                for (Event event : priorityBatch) {
+                    stripes[event.stripe].release(event);
+                }
+                for (Event event : batch) {
+                    stripes[event.stripe].release(event);
+                }
+            }
+        }
+    }
+
+    private void writeToStream(List<Event> priorityBatch, List<Event> batch, byte[] summary) {
+        if (!priorityBatch.isEmpty()) {
+            // The priority lane is written out before the less severe log events queued ahead of it
+            writeEvents(priorityBatch);
+            stream.flush();
+        }
+        writeEvents(batch);
+        if (summary != null) {
+            stream.write(summary, 0, summary.length);
+        }
+        stream.flush();
+    }
+
+    private void writeGathering(List<Event> priorityBatch, List<Event> batch, byte[] summary) {
+        ByteBuffer[] buffers = new ByteBuffer[priorityBatch.size() + batch.size() + 1];
+        int count = 0;
+        // The priority lane is written out before the less severe log events queued ahead of it
+        for (Event event : priorityBatch) {
+            buffers[count++] = toBuffer(event);
+        }
+        for (Event event : batch) {
+            buffers[count++] = toBuffer(event);
+        }
+        if (summary != null) {
+            buffers[count++] = ByteBuffer.wrap(summary);
+        }
+        // The output written through the stream by others goes out first
+        stream.flush();
+        try {
+            int offset = 0;
+            while (offset < count) {
+                // A gathering write may write only a part of the buffers
+                channel.write(buffers, offset, count - offset);
+                while (offset < count && !buffers[offset].hasRemaining()) {
+                    offset++;
+                }
+            }
+        } catch (IOException e) {
+            // As with the stream, the errors of writing to the console are not reported
+        }
+    }
+
+    private ByteBuffer toBuffer(Event event) {
+        return event.line != null ? ByteBuffer.wrap(event.line) :
+                stripes[event.stripe].arena.slice(event.position, event.length);
+    }
+
+    private void writeEvents(List<Event> batch) {
+        if (transfer == null) {
+            int length = 0;
+            for (Event event : batch) {
+                length += event.length;
+            }
+            byte[] output = new byte[length];
+            int position = 0;
+            for (Event event : batch) {
+                System.arraycopy(event.line, 0, output, position, event.length);
+                position += event.length;
+            }
+            stream.write(output, 0, output.length);
+            return;
+        }
+        // The log events in the arenas are copied out and written a segment at a time
+        int position = 0;
+        for (Event event : batch) {
+            if (position + event.length > transfer.length) {
+                stream.write(transfer, 0, position);
+                position = 0;
+            }
+            if (event.line != null) {
+                stream.write(event.line, 0, event.length);
+            } else {
+                stripes[event.stripe].arena.read(event.position, transfer, position, event.length);
+                position += event.length;
+            }
+        }
+        stream.write(transfer, 0, position);
+    }
+
+    // Builds the summary of the log events dropped since the last summary, and resets the counters
+    private byte[] buildDropSummary(long now) {
+        long total = 0;
+        for (long count : dropped) {
+            total += count;
+        }
+        if (total == 0) {
+            return null;
+        }
+        StringBuilder counts = new StringBuilder("{");
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (dropped[i] > 0) {
+                if (counts.length() > 1) {
+                    counts.append(jsonSummary ? ", " : ",");
+                }
+                counts.append('"').append(LEVELS[i]).append("\":").append(dropped[i]);
+                dropped[i] = 0;
+            }
+        }
+        counts.append('}');
+        String time = new SimpleDateFormat(Utils.SIMPLE_DATE_FORMAT).format(new Date(now));
+        String message = total + " log events dropped";
+        String line = jsonSummary ?
+                "{\"time\":\"" + time + "\", \"level\":\"WARN\", \"module\":\"ballerina/log\", \"message\":\"" +
+                        message + "\", \"dropped\":" + counts + "}\n" :
+                "time=" + time + " level=WARN module=ballerina/log message=\"" + message + "\" dropped=" + counts +
+                        "\n";
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Index of the level in the descending order of severity
+    static int getLevelIndex(String level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level)) {
+                return i;
+            }
+        }
+        return LEVELS.length - 1;
+    }
+
+    private static FileChannel openChannel(FileDescriptor descriptor) {
+        // Not closed, as the standard streams stay open until the program exits
+        return new FileOutputStream(descriptor).getChannel();
+    }
+
+    private static long toMillis(Object seconds) {
+        return ((BDecimal) seconds).decimalValue().movePointRight(3).longValue();
+    }
+
+    // A share of the buffer, to which a subset of the logging threads write
+    private final class Stripe {
+
+        private final int index;
+        private final int capacity;
+        // Null if the log events are buffered on the heap
+        private final OffHeapArena arena;
+
+        // Guarded by this
+        private final ArrayDeque<Event> events = new ArrayDeque<>();
+        private final ArrayDeque<Event> priorityEvents = new ArrayDeque<>();
+        // Total length of the log events in both queues
+        private int size = 0;
+        private final long[] dropped = new long[LEVELS.length];
+
+        private Stripe(int index, int capacity, int segmentSize) {
+            this.index = index;
+            this.arena = segmentSize > 0 ? new OffHeapArena(capacity / segmentSize, segmentSize) : null;
+            this.capacity = arena == null ? capacity : arena.capacity();
+        }
+
+        private boolean hasRoom(int length) {
+            return arena == null ? size + length <= capacity : arena.hasRoom(length);
+        }
+
+        private int usedBytes() {
+            return arena == null ? size : arena.usedBytes();
+        }
+
+        // Returns whether the stripe is more than half full
+        private boolean append(byte[] line, int level, boolean onHeap) {
+            long timestamp = stripes.length == 1 ? 0 : System.nanoTime();
+            Event event;
+            if (arena == null || onHeap || line.length > maxEventLength) {
+                event = new Event(line, -1, line.length, level, index, timestamp);
+            } else {
+                event = new Event(null, arena.store(line), line.length, level, index, timestamp);
+            }
+            (level <= priorityLevel ? priorityEvents : events).addLast(event);
+            size += line.length;
+            return usedBytes() > capacity / 2;
+        }
+
+        // Drops the buffered log events as per the policy, to make room for a log event of the given length
+        private void dropEvents(int length) {
+            // The log events in the priority lane are dropped only after all the others
+            dropEvents(events, length);
+            dropEvents(priorityEvents, length);
+        }
+
+        private void dropEvents(ArrayDeque<Event> queue, int length) {
+            boolean dropOldest = DROP_OLDEST_POLICY.equals(policy);
+            Iterator<Event> iterator = queue.iterator();
+            while (!hasRoom(length) && iterator.hasNext()) {
+                Event event = iterator.next();
+                // DROP_BELOW_LEVEL drops only the less severe log events
+                if (dropOldest || event.level > dropBelowLevel) {
+                    iterator.remove();
+                    size -= event.length;
+                    releaseSpace(event);
+                    dropped[event.level]++;
+                }
+            }
+        }
+
+        // Moves the log events logged before the cutoff to the given batches, and the drop counts to the counts
+        // of the writer
+        private void drain(List<Event> priorityBatch, List<Event> batch, long cutoff) {
+            drain(priorityEvents, priorityBatch, cutoff);
+            drain(events, batch, cutoff);
+            if (arena != null) {
+                arena.seal();
+            }
+            for (int i = 0; i < dropped.length; i++) {
+                ConsoleWriter.this.dropped[i] += dropped[i];
+                dropped[i] = 0;
+            }
+        }
+
+        private void drain(ArrayDeque<Event> queue, List<Event> batch, long cutoff) {
+            // The queues are in the logging order
+            while (!queue.isEmpty() && queue.peekFirst().timestamp < cutoff) {
+                Event event = queue.pollFirst();
+                batch.add(event);
+                size -= event.length;
+            }
+        }
+
+        private synchronized void release(Event event) {
+            releaseSpace(event);
+        }
+
+        private void releaseSpace(Event event) {
+            if (event.line == null) {
+                arena.release(event.position, event.length);
+            }
+        }
+    }
+
+    // The line is null if the log event is in the arena of its stripe
+    private record Event(byte[] line, int position, int length, int level, int stripe, long timestamp) {
+    }
+}
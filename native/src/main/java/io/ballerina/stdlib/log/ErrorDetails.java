@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.utils.JsonUtils;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Parses the details of the errors being logged. Errors are immutable, so the parsed details of an error
+ * (the message, the detail and the stack frames) are cached against the error and shared by all the log
+ * events of the error and of the errors caused by it. The cache does not keep the errors alive.
+ *
+ * @since 2.17.0
+ */
+public class ErrorDetails {
+
+    // Errors do not override equals, so they are looked up by identity
+    private static final Map<BError, Object> ERROR_DETAILS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ErrorDetails() {
+    }
+
+    /**
+     * Get the cached details of the given error.
+     *
+     * @param error the error
+     * @return the immutable `log:ErrorDetail` of the error, or null if the details are not cached
+     */
+    public static Object getCachedErrorDetail(BError error) {
+        return ERROR_DETAILS.get(error);
+    }
+
+    /**
+     * Cache the details of the given error.
+     *
+     * @param error       the error
+     * @param errorDetail the immutable `log:ErrorDetail` of the error
+     * @return the given error details
+     */
+    public static Object cacheErrorDetail(BError error, Object errorDetail) {
+        ERROR_DETAILS.put(error, errorDetail);
+        return errorDetail;
+    }
+
+    /**
+     * Parse the error message as JSON, if it is a JSON value. Only the messages which start like a JSON value
+     * are parsed, so that plain text messages do not pay for a failed parse.
+     *
+     * @param message the error message
+     * @return the parsed JSON value, or the message if it is not a JSON value
+     */
+    public static Object parseErrorMessage(BString message) {
+        String value = message.getValue();
+        if (!isJsonCandidate(value)) {
+            return message;
+        }
+        try {
+            return JsonUtils.parse(value);
+        } catch (BError e) {
+            return message;
+        }
+    }
+
+    private static boolean isJsonCandidate(String value) {
+        int start = 0;
+        while (start < value.length() && isJsonWhitespace(value.charAt(start))) {
+            start++;
+        }
+        if (start == value.length()) {
+            return false;
+        }
+        char first = value.charAt(start);
+        return switch (first) {
+            case '{', '[', '"', '-' -> true;
+            case 't' -> value.startsWith("true", start);
+            case 'f' -> value.startsWith("false", start);
+            case 'n' -> value.startsWith("null", start);
+            default -> first >= '0' && first <= '9';
+        };
+    }
+
+    private static boolean isJsonWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+}
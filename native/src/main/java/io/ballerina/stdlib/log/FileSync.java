@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.IOException;
+import java.io.SyncFailedException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Syncs the log files of the file destinations to the disk as per their durability policies. The log files are
+ * written through the page cache of the operating system, so without a policy the log events written shortly
+ * before a crash of the host may be lost. A log file is synced through the channel of the write which makes the
+ * sync due, while the {@code INTERVAL} policy syncs the log files written since the last sync from a background
+ * thread.
+ *
+ * @since 2.17.0
+ */
+public class FileSync {
+
+    private static final BString PATH_KEY = StringUtils.fromString("path");
+    private static final BString SYNC_KEY = StringUtils.fromString("sync");
+    private static final BString POLICY_KEY = StringUtils.fromString("policy");
+    private static final BString INTERVAL_KEY = StringUtils.fromString("interval");
+    private static final BString EVENTS_KEY = StringUtils.fromString("events");
+    private static final BString LEVEL_KEY = StringUtils.fromString("level");
+
+    private static final String INTERVAL_POLICY = "INTERVAL";
+    private static final String EVERY_N_EVENTS_POLICY = "EVERY_N_EVENTS";
+    private static final String ON_LEVEL_POLICY = "ON_LEVEL";
+
+    // Log file path -> durability policy of the log file, including the NONE policy
+    private static final Map<String, FileSync> POLICIES = new ConcurrentHashMap<>();
+    // Paths of the log files written since they were last rotated, which are synced by syncAll
+    private static final Set<String> WRITTEN_FILES = ConcurrentHashMap.newKeySet();
+    private static volatile ScheduledExecutorService scheduler = null;
+
+    private final String path;
+    // Interval in milliseconds between the syncs, 0 if the log file is not synced by the interval
+    private final long interval;
+    // Number of the log events between the syncs, 0 if the log file is not synced by the number of the log events
+    private final long events;
+    // Index of the least severe level which makes a sync due, -1 if the log file is not synced by the level
+    private final int level;
+    private final AtomicLong unsyncedEvents = new AtomicLong();
+    // Whether the log file is written since the last sync by the interval
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    private FileSync(String path, long interval, long events, int level) {
+        this.path = path;
+        this.interval = interval;
+        this.events = events;
+        this.level = level;
+    }
+
+    /**
+     * Install the durability policies of the file destinations of a logger. Called once the logger is validated,
+     * before it is created. The destinations of the same log file, across all the loggers, should have the same
+     * policy, unless the policy is not configured for the destination. The policies are installed only if none of
+     * them conflicts with another.
+     *
+     * @param destinations the validated `log:OutputDestination` records of the logger
+     * @return a BError if the policies of a log file conflict, null otherwise
+     */
+    public static Object initFileSync(BArray destinations) {
+        synchronized (POLICIES) {
+            Map<String, FileSync> added = new HashMap<>();
+            for (int i = 0; i < destinations.size(); i++) {
+                BMap<?, ?> destination = (BMap<?, ?>) destinations.get(i);
+                if (!destination.containsKey(SYNC_KEY)) {
+                    continue;
+                }
+                String path = ((BString) destination.get(PATH_KEY)).getValue();
+                FileSync sync = create(path, (BMap<?, ?>) destination.get(SYNC_KEY));
+                FileSync existing = POLICIES.get(path);
+                if (existing == null) {
+                    existing = added.putIfAbsent(path, sync);
+                }
+                if (existing != null && !existing.hasPolicyOf(sync)) {
+                    return ErrorCreator.createError(StringUtils.fromString(
+                            "Conflicting sync configurations for the log file: '" + path + "'"));
+                }
+            }
+            for (FileSync sync : added.values()) {
+                if (sync.interval > 0) {
+                    getScheduler().scheduleWithFixedDelay(sync::syncIfDirty, sync.interval,
+                            sync.interval, TimeUnit.MILLISECONDS);
+                }
+                POLICIES.put(sync.path, sync);
+            }
+        }
+        return null;
+    }
+
+    private static FileSync create(String path, BMap<?, ?> config) {
+        String policy = ((BString) config.get(POLICY_KEY)).getValue();
+        if (INTERVAL_POLICY.equals(policy)) {
+            long interval = ((BDecimal) config.get(INTERVAL_KEY)).decimalValue().movePointRight(3).longValue();
+            return new FileSync(path, Math.max(interval, 1), 0, -1);
+        } else if (EVERY_N_EVENTS_POLICY.equals(policy)) {
+            return new FileSync(path, 0, (Long) config.get(EVENTS_KEY), -1);
+        } else if (ON_LEVEL_POLICY.equals(policy)) {
+            return new FileSync(path, 0, 0,
+                    ConsoleWriter.getLevelIndex(((BString) config.get(LEVEL_KEY)).getValue()));
+        }
+        return new FileSync(path, 0, 0, -1);
+    }
+
+    private boolean hasPolicyOf(FileSync other) {
+        return interval == other.interval && events == other.events && level == other.level;
+    }
+
+    /**
+     * Sync the log file after a log event is written to it, if a sync is due as per its policy.
+     *
+     * @param path    the path of the log file
+     * @param channel the channel through which the log event is written
+     * @param level   the level of the log event
+     * @throws SyncFailedException if the log file could not be synced
+     */
+    static void afterWrite(String path, FileChannel channel, String level) throws SyncFailedException {
+        WRITTEN_FILES.add(path);
+        if (POLICIES.isEmpty()) {
+            return;
+        }
+        FileSync sync = POLICIES.get(path);
+        if (sync == null) {
+            return;
+        }
+        if (sync.interval > 0) {
+            sync.dirty.set(true);
+        } else if (sync.events > 0 ? sync.unsyncedEvents.incrementAndGet() % sync.events == 0 :
+                ConsoleWriter.getLevelIndex(level) <= sync.level) {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                // The log event is written, so the failure is reported apart from the write failures
+                SyncFailedException failure = new SyncFailedException(e.getMessage());
+                failure.initCause(e);
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Sync a log file which is about to be rotated or not written anymore, and stop tracking it for syncAll.
+     *
+     * @param path the path of the log file
+     */
+    static void release(String path) {
+        if (!WRITTEN_FILES.remove(path)) {
+            return;
+        }
+        try {
+            sync(path);
+        } catch (IOException e) {
+            // The log file is not written through this path anymore
+        }
+    }
+
+    /**
+     * Sync all the log files written so far to the disk, irrespective of their policies.
+     */
+    static void syncAll() {
+        for (String path : WRITTEN_FILES) {
+            try {
+                sync(path);
+            } catch (IOException e) {
+                // The other log files are still synced
+            }
+        }
+    }
+
+    private void syncIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            sync(path);
+        } catch (IOException e) {
+            // Retried on the next interval
+            dirty.set(true);
+        }
+    }
+
+    private static void sync(String path) throws IOException {
+        // The data of a file is synced through any of its channels
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (NoSuchFileException e) {
+            // The log file is rotated or removed since it was written
+        }
+    }
+
+    private static ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService syncer = scheduler;
+        if (syncer == null) {
+            synchronized (FileSync.class) {
+                syncer = scheduler;
+                if (syncer == null) {
+                    syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "ballerina-log-file-sync");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler = syncer;
+                }
+            }
+        }
+        return syncer;
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BFunctionPointer;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Context key-values of a logger, prepared once when the logger is created. The static key-values are
+ * serialized in the format of the logger into immutable fragments, which are spliced into each log event.
+ * Only the valuers and the raw templates are evaluated for each log event.
+ * <p>
+ * The context consists of a head, which holds the key-values of the root logger and is written right after
+ * the core fields of the log event, and a tail, which holds the key-values added by the child loggers and
+ * is written after the call-site key-values.
+ * <p>
+ * The context of a child logger shares the structure of the context of its parent. The head is shared
+ * unless the child overrides a key-value of the root logger, and the tail is a chain of the key-values
+ * added by each child logger. Creating a child logger with new key-values therefore only serializes the
+ * new key-values. The chain is flattened once it grows beyond {@link #MAX_TAIL_DEPTH} and whenever a child
+ * overrides a key-value of the tail, so that formatting a log event does not depend on the nesting depth.
+ *
+ * @since 2.17.0
+ */
+public final class LogContext {
+
+    private static final String LOGFMT_FORMAT = "logfmt";
+    private static final String BINARY_FORMAT = "binary";
+    private static final BString MODULE_KEY = StringUtils.fromString("module");
+    private static final int MAX_TAIL_DEPTH = 8;
+
+    private final boolean logFmt;
+    private final boolean maskingEnabled;
+    // Whether the key-values are serialized in advance. The module key-value replaces the module of the log
+    // event, and the serialization limits depend on the size of the whole log event, so such contexts only
+    // keep the key-values to be merged into each log event.
+    private final boolean prepared;
+    private final List<Entry> head;
+    // Runs of consecutive static key-values are joined into a single fragment (String), while the
+    // dynamic key-values are kept as entries (Entry)
+    private final List<Object> headSegments;
+    private final Set<String> headKeys;
+    // The tail is written after the tail of the tail parent
+    private final LogContext tailParent;
+    private final List<Entry> tail;
+    private final List<Object> tailSegments;
+    private final Set<String> tailKeys;
+    private final int tailDepth;
+    // Flattened copy of this context, shared by the child loggers once the chain is too deep
+    private volatile LogContext flattened;
+
+    private LogContext(boolean logFmt, boolean maskingEnabled, boolean prepared, List<Entry> head,
+                       List<Object> headSegments, Set<String> headKeys, LogContext tailParent, List<Entry> tail) {
+        this.logFmt = logFmt;
+        this.maskingEnabled = maskingEnabled;
+        this.prepared = prepared;
+        this.head = head;
+        this.headSegments = headSegments;
+        this.headKeys = headKeys;
+        this.tailParent = tailParent;
+        this.tail = tail;
+        this.tailSegments = toSegments(tail);
+        this.tailKeys = new HashSet<>();
+        for (Entry entry : tail) {
+            this.tailKeys.add(entry.key());
+        }
+        this.tailDepth = tailParent == null ? 1 : tailParent.tailDepth + 1;
+    }
+
+    /**
+     * Prepare the context key-values of a root logger.
+     *
+     * @param env                        the Ballerina environment
+     * @param keyValues                  the context key-values of the logger
+     * @param format                     the log format of the logger
+     * @param enableSensitiveDataMasking whether the sensitive data masking is enabled for the logger
+     * @return the prepared context
+     */
+    public static LogContext createLogContext(Environment env, BMap<BString, Object> keyValues, BString format,
+                                              boolean enableSensitiveDataMasking) {
+        boolean logFmt = LOGFMT_FORMAT.equals(format.getValue());
+        // The binary log events are encoded from the log record, so the context is not serialized in advance
+        boolean prepared = SerializationLimits.getConfigured().equals(SerializationLimits.UNLIMITED) &&
+                !keyValues.containsKey(MODULE_KEY) && !BINARY_FORMAT.equals(format.getValue());
+        List<Entry> head = new ArrayList<>(keyValues.size());
+        Set<String> headKeys = new HashSet<>();
+        try (MaskedStringBuilder builder = createBuilder(env.getRuntime(), logFmt, enableSensitiveDataMasking)) {
+            for (BString key : keyValues.getKeys()) {
+                head.add(toEntry(builder, key.getValue(), keyValues.get(key), logFmt, enableSensitiveDataMasking,
+                        prepared));
+                headKeys.add(key.getValue());
+            }
+        }
+        return new LogContext(logFmt, enableSensitiveDataMasking, prepared, Collections.unmodifiableList(head),
+                toSegments(head), headKeys, null, List.of());
+    }
+
+    /**
+     * Prepare the context key-values of a child logger, sharing the context of the parent logger.
+     *
+     * @param env       the Ballerina environment
+     * @param parent    the context of the parent logger
+     * @param keyValues the key-values added or overridden by the child logger
+     * @return the prepared context
+     */
+    public static LogContext extendLogContext(Environment env, Object parent, BMap<BString, Object> keyValues) {
+        LogContext context = (LogContext) parent;
+        if (keyValues.isEmpty()) {
+            return context;
+        }
+        boolean prepared = context.prepared && !keyValues.containsKey(MODULE_KEY);
+        Map<String, Entry> headOverrides = new HashMap<>();
+        Map<String, Entry> tailOverrides = new HashMap<>();
+        List<Entry> added = new ArrayList<>();
+        try (MaskedStringBuilder builder = createBuilder(env.getRuntime(), context.logFmt,
+                context.maskingEnabled)) {
+            for (BString key : keyValues.getKeys()) {
+                String keyName = key.getValue();
+                Entry entry = toEntry(builder, keyName, keyValues.get(key), context.logFmt, context.maskingEnabled,
+                        prepared);
+                if (context.headKeys.contains(keyName)) {
+                    headOverrides.put(keyName, entry);
+                } else if (context.isTailKey(keyName)) {
+                    tailOverrides.put(keyName, entry);
+                } else {
+                    added.add(entry);
+                }
+            }
+        }
+        if (prepared != context.prepared) {
+            // The fragments of the parent are not valid anymore, and they are not needed either
+            headOverrides.putAll(tailOverrides);
+            return context.flatten(headOverrides, added, false);
+        }
+
+        List<Entry> head = context.head;
+        List<Object> headSegments = context.headSegments;
+        if (!headOverrides.isEmpty()) {
+            head = override(head, headOverrides);
+            headSegments = toSegments(head);
+        }
+        LogContext tailParent;
+        List<Entry> tail;
+        if (!tailOverrides.isEmpty()) {
+            tailParent = null;
+            tail = override(context.getTail(), tailOverrides);
+            tail.addAll(added);
+        } else {
+            tailParent = context.getTailParentForChild();
+            tail = added;
+        }
+        return new LogContext(context.logFmt, context.maskingEnabled, prepared, head, headSegments,
+                context.headKeys, tailParent, Collections.unmodifiableList(tail));
+    }
+
+    /**
+     * Format the log event splicing in the prepared context key-values.
+     *
+     * @param env               the Ballerina environment
+     * @param logRecord         the core fields of the log event
+     * @param callSiteKeyValues the evaluated call-site key-values
+     * @param trailingKeyValues the tracing and observability key-values, which take precedence over the others
+     * @param context           the prepared context
+     * @return the formatted log event
+     */
+    public static BString formatWithContext(Environment env, BMap<BString, Object> logRecord,
+                                            BMap<BString, Object> callSiteKeyValues,
+                                            BMap<BString, Object> trailingKeyValues, Object context) {
+        LogContext logContext = (LogContext) context;
+        try (MaskedStringBuilder builder = createBuilder(env.getRuntime(), logContext.logFmt,
+                logContext.maskingEnabled)) {
+            return StringUtils.fromString(builder.buildEvent(logRecord, callSiteKeyValues, trailingKeyValues,
+                    logContext));
+        }
+    }
+
+    /**
+     * Check whether the context key-values are serialized in advance, to be spliced into the log events.
+     *
+     * @param context the context
+     * @return true if the context is prepared, false if the key-values need to be merged into each log event
+     */
+    public static boolean isLogContextPrepared(Object context) {
+        return ((LogContext) context).prepared;
+    }
+
+    /**
+     * Add the context key-values, which are not already in the given key-values, in the order of the context.
+     *
+     * @param keyValues the key-values to be merged with the context key-values
+     * @param context   the context
+     */
+    public static void mergeLogContext(BMap<BString, Object> keyValues, Object context) {
+        LogContext logContext = (LogContext) context;
+        mergeEntries(keyValues, logContext.head);
+        mergeEntries(keyValues, logContext.getTail());
+    }
+
+    /**
+     * Get the value of a context key-value.
+     *
+     * @param context the context
+     * @param key     the key of the key-value
+     * @return the value, or null if the context does not have the key-value
+     */
+    public static Object getLogContextValue(Object context, BString key) {
+        LogContext logContext = (LogContext) context;
+        String keyName = key.getValue();
+        if (!logContext.headKeys.contains(keyName) && !logContext.isTailKey(keyName)) {
+            return null;
+        }
+        List<Entry> entries = logContext.headKeys.contains(keyName) ? logContext.head : logContext.getTail();
+        for (Entry entry : entries) {
+            if (entry.key().equals(keyName)) {
+                return entry.value();
+            }
+        }
+        return null;
+    }
+
+    private static void mergeEntries(BMap<BString, Object> keyValues, List<Entry> entries) {
+        for (Entry entry : entries) {
+            BString key = StringUtils.fromString(entry.key());
+            if (!keyValues.containsKey(key)) {
+                keyValues.put(key, entry.value());
+            }
+        }
+    }
+
+    private static MaskedStringBuilder createBuilder(Runtime runtime, boolean logFmt, boolean maskingEnabled) {
+        // Use the same separators as `toJsonString` when the masking is disabled
+        String separator = logFmt || maskingEnabled ? "," : ", ";
+        return MaskedStringBuilder.createEvent(runtime, maskingEnabled, separator);
+    }
+
+    private static Entry toEntry(MaskedStringBuilder builder, String key, Object value, boolean logFmt,
+                                 boolean maskingEnabled, boolean prepared) {
+        if (!prepared || isDynamic(value)) {
+            return new Entry(key, value, null);
+        }
+        Object fragmentValue = value;
+        if (maskingEnabled && value instanceof BString stringValue) {
+            fragmentValue = PatternMasker.maskPatterns(stringValue);
+        }
+        return new Entry(key, value, builder.buildEventField(key, fragmentValue, logFmt));
+    }
+
+    private static List<Entry> override(List<Entry> entries, Map<String, Entry> overrides) {
+        List<Entry> overridden = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            overridden.add(overrides.getOrDefault(entry.key(), entry));
+        }
+        return overridden;
+    }
+
+    private static List<Object> toSegments(List<Entry> entries) {
+        List<Object> segments = new ArrayList<>();
+        StringBuilder staticRun = new StringBuilder();
+        for (Entry entry : entries) {
+            if (entry.fragment() != null) {
+                staticRun.append(entry.fragment());
+                continue;
+            }
+            if (!staticRun.isEmpty()) {
+                segments.add(staticRun.toString());
+                staticRun.setLength(0);
+            }
+            segments.add(entry);
+        }
+        if (!staticRun.isEmpty()) {
+            segments.add(staticRun.toString());
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    private static boolean isDynamic(Object value) {
+        // Valuers and raw templates are the only non-anydata key-values
+        return value instanceof BFunctionPointer || value instanceof BObject;
+    }
+
+    /**
+     * Get the context on which the tail of a child logger is chained.
+     */
+    private LogContext getTailParentForChild() {
+        if (this.tailParent == null && this.tail.isEmpty()) {
+            return null;
+        }
+        if (this.tailDepth < MAX_TAIL_DEPTH) {
+            return this;
+        }
+        LogContext flattenedContext = this.flattened;
+        if (flattenedContext == null) {
+            // Concurrent loggers may flatten the same context, which only costs a duplicate copy
+            flattenedContext = flatten(Map.of(), List.of(), this.prepared);
+            this.flattened = flattenedContext;
+        }
+        return flattenedContext;
+    }
+
+    private LogContext flatten(Map<String, Entry> overrides, List<Entry> added, boolean prepared) {
+        List<Entry> head = override(this.head, overrides);
+        List<Entry> tail = override(getTail(), overrides);
+        tail.addAll(added);
+        return new LogContext(this.logFmt, this.maskingEnabled, prepared, Collections.unmodifiableList(head),
+                toSegments(head), this.headKeys, null, Collections.unmodifiableList(tail));
+    }
+
+    private boolean isTailKey(String key) {
+        for (LogContext context = this; context != null; context = context.tailParent) {
+            if (context.tailKeys.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluate a valuer or a raw template in the same way as the call-site key-values are evaluated.
+     */
+    Object evaluate(Runtime runtime, Object value) {
+        Object evaluated;
+        if (value instanceof BFunctionPointer valuer) {
+            evaluated = valuer.call(runtime);
+        } else {
+            try (MaskedStringBuilder builder = MaskedStringBuilder.createTemplate(runtime, this.maskingEnabled)) {
+                evaluated = StringUtils.fromString(builder.buildTemplate((BObject) value));
+            }
+        }
+        if (this.maskingEnabled && evaluated instanceof BString stringValue) {
+            return PatternMasker.maskPatterns(stringValue);
+        }
+        return evaluated;
+    }
+
+    boolean isLogFmt() {
+        return this.logFmt;
+    }
+
+    List<Entry> getHead() {
+        return this.head;
+    }
+
+    /**
+     * Get all the key-values of the tail, in the order of the chain.
+     */
+    List<Entry> getTail() {
+        if (this.tailParent == null) {
+            return new ArrayList<>(this.tail);
+        }
+        List<Entry> entries = this.tailParent.getTail();
+        entries.addAll(this.tail);
+        return entries;
+    }
+
+    List<Object> getHeadSegments() {
+        return this.headSegments;
+    }
+
+    LogContext getTailParent() {
+        return this.tailParent;
+    }
+
+    List<Object> getTailSegments() {
+        return this.tailSegments;
+    }
+
+    boolean isHeadKey(String key) {
+        return this.headKeys.contains(key);
+    }
+
+    /**
+     * Check whether any of the given keys is also a key of the context.
+     */
+    boolean collidesWith(BMap<?, ?> keyValues) {
+        for (Object key : keyValues.getKeys()) {
+            if (collidesWith(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean collidesWith(Object key) {
+        String keyName = StringUtils.getStringValue(key);
+        return this.headKeys.contains(keyName) || isTailKey(keyName);
+    }
+
+    /**
+     * A context key-value. The fragment holds the serialized static key-value, and it is null for the
+     * valuers, the raw templates and the key-values of the contexts which are not prepared.
+     */
+    record Entry(String key, Object value, String fragment) {
+    }
+}
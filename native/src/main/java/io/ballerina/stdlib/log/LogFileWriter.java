@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.SyncFailedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes the log output to the log files. The log output of an event is encoded to UTF-8 once, along with the
+ * line separator, and the same bytes are written to all the files the event is written to.
+ *
+ * @since 2.17.0
+ */
+public class LogFileWriter {
+
+    private LogFileWriter() {
+    }
+
+    /**
+     * Encode the log output of an event, terminated by a new line.
+     *
+     * @param logOutput the formatted log output
+     * @return the encoded bytes, which are not modified afterwards
+     */
+    public static Object encodeLogOutput(BString logOutput) {
+        byte[] bytes = logOutput.getValue().getBytes(StandardCharsets.UTF_8);
+        byte[] line = Arrays.copyOf(bytes, bytes.length + 1);
+        line[bytes.length] = '\n';
+        return line;
+    }
+
+    /**
+     * Append the encoded log output to the log file, creating the file if it does not exist. The log file is
+     * synced to the disk afterwards if a sync is due as per its {@link FileSync durability policy}.
+     *
+     * @param filePath the path of the log file
+     * @param output   the bytes encoded with {@link #encodeLogOutput}
+     * @param level    the level of the log event
+     * @return a BError if the log output could not be written or synced, null otherwise
+     */
+    public static Object writeLogOutput(BString filePath, Object output, BString level) {
+        try (FileOutputStream stream = new FileOutputStream(filePath.getValue(), true)) {
+            stream.write((byte[]) output);
+            FileSync.afterWrite(filePath.getValue(), stream.getChannel(), level.getValue());
+            return null;
+        } catch (SyncFailedException e) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "failed to sync the log output to the disk: " + e.getMessage()));
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "failed to write log output to the file: " + e.getMessage()));
+        }
+    }
+}
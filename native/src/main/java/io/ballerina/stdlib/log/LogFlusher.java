@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+
+import java.util.List;
+
+/**
+ * Writes out the buffered log events and syncs the log files to the disk, on request and when the program exits,
+ * including when it exits on a panic. The work is bounded by a deadline, and is done on a thread of its own, so
+ * that a slow console or disk does not hold up the caller, or the exit of the program, beyond the deadline.
+ *
+ * @since 2.17.0
+ */
+public class LogFlusher {
+
+    private static volatile long shutdownTimeout = 0;
+    private static volatile boolean shutdownHookAdded = false;
+    // The thread of the last flush, which may still be running if the flush did not complete within its timeout
+    private static Thread flusher = null;
+
+    private LogFlusher() {
+    }
+
+    /**
+     * Initialize the flush of the logs at the exit of the program. Called once from the module init.
+     *
+     * @param timeout the maximum time in seconds the exit of the program waits for the flush
+     * @return a BError if the timeout is invalid, null otherwise
+     */
+    public static synchronized Object initShutdownFlush(BDecimal timeout) {
+        long timeoutInMillis = toMillis(timeout);
+        if (timeoutInMillis < 0) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "Invalid shutdown flush timeout: the timeout should not be negative"));
+        }
+        shutdownTimeout = timeoutInMillis;
+        if (!shutdownHookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(LogFlusher::flushOnShutdown, "ballerina-log-exit"));
+            shutdownHookAdded = true;
+        }
+        return null;
+    }
+
+    /**
+     * Write out the buffered log events and sync the log files to the disk.
+     *
+     * @param timeout the maximum time in seconds to wait for the flush
+     * @return a BError if the flush did not complete within the timeout, null otherwise
+     */
+    public static Object flushLogs(BDecimal timeout) {
+        long timeoutInMillis = toMillis(timeout);
+        if (timeoutInMillis < 0) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "Invalid flush timeout: the timeout should not be negative"));
+        }
+        try {
+            FlushResult result = flush(timeoutInMillis, List.of());
+            if (result == FlushResult.COMPLETED) {
+                return null;
+            }
+            String reason = result == FlushResult.TIMED_OUT ? "the flush is still in progress" :
+                    "an earlier flush, which did not complete within its timeout, is still in progress";
+            return ErrorCreator.createError(StringUtils.fromString("The logs could not be flushed within " +
+                    timeout.decimalValue().toPlainString() + "s: " + reason));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ErrorCreator.createError(StringUtils.fromString("The flush of the logs was interrupted"));
+        }
+    }
+
+    private static void flushOnShutdown() {
+        // No log file is rotated while the last log events are written to it. The log files of the rotation
+        // managers are synced and released by the flush.
+        List<String> rotatedFiles = LogRotationManager.closeAllInstances();
+        try {
+            flush(shutdownTimeout, rotatedFiles);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            MaskedStringBuilder.shutdownParallelMasking();
+        }
+    }
+
+    // A single flush runs at a time, since the flushes compete for the console and the log files. A flush which
+    // is in progress is waited for, and followed by a flush of the log events written since it started.
+    private static FlushResult flush(long timeoutInMillis, List<String> releasedFiles) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutInMillis;
+        while (true) {
+            Thread current;
+            boolean started;
+            synchronized (LogFlusher.class) {
+                started = flusher == null || !flusher.isAlive();
+                if (started) {
+                    flusher = new Thread(() -> {
+                        releasedFiles.forEach(FileSync::release);
+                        ConsoleWriter.flushAll();
+                        FileSync.syncAll();
+                    }, "ballerina-log-flush");
+                    // Left behind on a timeout, without holding up the exit of the program
+                    flusher.setDaemon(true);
+                    flusher.start();
+                }
+                current = flusher;
+            }
+            current.join(Math.max(deadline - System.currentTimeMillis(), 1));
+            if (current.isAlive()) {
+                return started ? FlushResult.TIMED_OUT : FlushResult.EARLIER_FLUSH_IN_PROGRESS;
+            }
+            if (started) {
+                return FlushResult.COMPLETED;
+            }
+        }
+    }
+
+    private static long toMillis(BDecimal seconds) {
+        return seconds.decimalValue().movePointRight(3).longValue();
+    }
+
+    private enum FlushResult {
+        COMPLETED,
+        TIMED_OUT,
+        EARLIER_FLUSH_IN_PROGRESS
+    }
+}
@@ -46,6 +46,8 @@ import static io.ballerina.runtime.api.utils.StringUtils.fromString;
 public class LogRotationManager {
 
     private static final ConcurrentHashMap<String, LogRotationManager> instances = new ConcurrentHashMap<>();
+    // Set when the program exits, after which no log file is rotated
+    private static volatile boolean closed = false;
     private static final String SIZE_BASED = "SIZE_BASED";
     private static final String TIME_BASED = "TIME_BASED";
     private static final String BOTH = "BOTH";
@@ -101,6 +103,9 @@ public class LogRotationManager {
      * @return BError if rotation fails, null otherwise
      */
     public BError rotate() {
+        if (closed) {
+            return null;
+        }
         // Try to acquire the rotation flag atomically to prevent concurrent rotations
         if (rotationInProgress.compareAndSet(false, true)) {
             try {
@@ -183,6 +188,9 @@ public class LogRotationManager {
             Path source = Paths.get(filePath);
             Path target = Paths.get(rotatedFileName);
 
+            // Sync the current file, which is not written through this path after it is moved
+            FileSync.release(filePath);
+
             // Move current file to rotated file
             Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
 
@@ -192,6 +200,12 @@ public class LogRotationManager {
             // Update last rotation time
             lastRotationTime = System.currentTimeMillis();
 
+            // Write the stack traces in full again in the new log file
+            StackTraceDeduplicator.reset(filePath);
+
+            // Start a new segment with empty dictionaries in the new binary log file
+            BinaryLogWriter.reset(filePath);
+
             // Clean up old backup files
             return cleanupOldBackups();
         } catch (IOException e) {
@@ -263,6 +277,7 @@ public class LogRotationManager {
      */
     public static void removeInstance(String filePath) {
         instances.remove(filePath);
+        FileSync.release(filePath);
     }
 
     /**
@@ -272,4 +287,17 @@ public class LogRotationManager {
     public static void clearAllInstances() {
         instances.clear();
     }
+
+    /**
+     * Close all LogRotationManager instances, so that no log file is rotated afterwards.
+     * Called when the program exits, before the last log events are written out.
+     *
+     * @return the paths of the log files of the closed instances, to be synced and released
+     */
+    static List<String> closeAllInstances() {
+        closed = true;
+        List<String> filePaths = new ArrayList<>(instances.keySet());
+        instances.clear();
+        return filePaths;
+    }
 }
@@ -20,29 +20,49 @@ package io.ballerina.stdlib.log;
 
 import io.ballerina.runtime.api.Runtime;
 import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.types.ArrayType;
 import io.ballerina.runtime.api.types.Field;
 import io.ballerina.runtime.api.types.IntersectionType;
+import io.ballerina.runtime.api.types.MapType;
 import io.ballerina.runtime.api.types.RecordType;
 import io.ballerina.runtime.api.types.ReferenceType;
+import io.ballerina.runtime.api.types.TableType;
+import io.ballerina.runtime.api.types.TupleType;
 import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.types.TypeTags;
+import io.ballerina.runtime.api.types.UnionType;
 import io.ballerina.runtime.api.utils.IdentifierUtils;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.utils.TypeUtils;
 import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BFunctionPointer;
 import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.runtime.api.values.BTable;
 import io.ballerina.runtime.api.values.BXml;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -67,6 +87,10 @@ public class MaskedStringBuilder implements AutoCloseable {
 
     // Thread-safe LRU cache for field annotations to avoid repeated extraction
     private static final LRUCache<RecordType, Map<String, BMap<?, ?>>> ANNOTATION_CACHE = new LRUCache<>(1000);
+    // Whether the values of a list or table type may call the replacement functions of the `@Sensitive` fields
+    private static final LRUCache<Type, Boolean> REPLACEMENT_FUNCTION_CACHE = new LRUCache<>(1000);
+    // Thrown by a chunk masked off the strand when it reaches a value which calls Ballerina code
+    private static final StrandRequiredException STRAND_REQUIRED = new StrandRequiredException();
 
     // Pre-computed hex lookup table for efficient Unicode escaping
     private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
@@ -79,16 +103,49 @@ public class MaskedStringBuilder implements AutoCloseable {
     private static final char[] CARRIAGE_RETURN_ESCAPE = {'\\', 'r'};
     private static final char[] BACKSPACE_ESCAPE = {'\\', 'b'};
     private static final char[] FORM_FEED_ESCAPE = {'\\', 'f'};
+    private static final char[] SINGLE_QUOTE_ESCAPE = {'\\', '\''};
 
     // Control character range constants for Unicode escaping
     private static final int ASCII_CONTROL_CHAR_LIMIT = 0x20; // Space character (32)
     private static final int ASCII_DEL_CHAR = 0x7F; // DEL character (127)
 
+    // Marker emitted in place of the values dropped due to the serialization limits
+    private static final String TRUNCATION_MARKER = "...";
+    private static final String QUOTED_TRUNCATION_MARKER = "\"...\"";
+    private static final String TRUNCATED_FIELD = "\"...\":\"...\"";
+    private static final String DEFAULT_SEPARATOR = ",";
+    private static final BString TEMPLATE_STRINGS_FIELD = StringUtils.fromString("strings");
+    private static final BString TEMPLATE_INSERTIONS_FIELD = StringUtils.fromString("insertions");
+    private static final Set<String> LOG_RECORD_HEADER_FIELDS = Set.of("time", "level", "module");
+
+    // Minimum number of members masked by a single task when a list or table is masked in parallel
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+    private static final int CHUNK_CAPACITY_PER_ELEMENT = 16;
+    private static final int PARALLEL_MASKING_THREADS = java.lang.Runtime.getRuntime().availableProcessors();
+    private static final int MAX_QUEUED_CHUNKS = PARALLEL_MASKING_THREADS * 4;
+
+    // Minimum number of members of a list or table to be masked in parallel, or -1 if disabled
+    private static volatile int parallelMaskingThreshold = -1;
+    // Executor of the parallel masking, created on first use and shut down when the program exits
+    private static ThreadPoolExecutor maskingExecutor = null;
+    private static boolean maskingExecutorShutdown = false;
+    // Number of the chunks masked on the masking executor
+    private static final AtomicLong PARALLEL_MASKED_CHUNKS = new AtomicLong();
+
     private final Runtime runtime;
     private final IdentityHashMap<Object, Boolean> visitedValues;
+    private final boolean maskingEnabled;
+    private final String separator;
+    private final SerializationLimits limits;
+    // Nesting depth at which the value given to build is serialized
+    private final int initialDepth;
+    // Whether the builder runs on the strand of the log call, which is the only thread to call Ballerina code
+    private final boolean onStrand;
     private StringBuilder stringBuilder;
     private StringBuilder escapeBuffer;
     private boolean closed = false;
+    private int depth;
+    private boolean truncated;
 
     // Initial capacity configuration
     private static final int DEFAULT_INITIAL_CAPACITY = 256;
@@ -100,8 +157,18 @@ public class MaskedStringBuilder implements AutoCloseable {
     }
 
     public MaskedStringBuilder(Runtime runtime, int initialCapacity) {
+        this(runtime, initialCapacity, true, DEFAULT_SEPARATOR, SerializationLimits.UNLIMITED, 0, true);
+    }
+
+    private MaskedStringBuilder(Runtime runtime, int initialCapacity, boolean maskingEnabled, String separator,
+                                SerializationLimits limits, int initialDepth, boolean onStrand) {
         this.runtime = runtime;
+        this.onStrand = onStrand;
         this.visitedValues = new IdentityHashMap<>();
+        this.maskingEnabled = maskingEnabled;
+        this.separator = separator;
+        this.limits = limits;
+        this.initialDepth = initialDepth;
         this.stringBuilder = new StringBuilder(initialCapacity < 0 ? DEFAULT_INITIAL_CAPACITY : initialCapacity);
         this.escapeBuffer = new StringBuilder(ESCAPE_BUFFER_SIZE);
     }
@@ -118,33 +185,359 @@ public class MaskedStringBuilder implements AutoCloseable {
         }
 
         try {
+            startBuild();
+            appendValue(value);
+            return finishBuild();
+        } finally {
             this.visitedValues.clear();
-            this.stringBuilder.setLength(0);
+        }
+    }
 
-            String result = buildInternal(value);
+    /**
+     * Build the logfmt representation of the given log record. Masking, escaping and the assembly of
+     * the fields are done in a single traversal of the record into the same buffer.
+     *
+     * @param logRecord the log record
+     * @return the logfmt representation of the log record
+     */
+    public String buildLogFmt(BMap<?, ?> logRecord) {
+        if (this.closed) {
+            throw ErrorCreator.createError(MASKED_STRING_BUILDER_HAS_BEEN_CLOSED);
+        }
 
-            // If the builder grew too large, replace it with a smaller one for future use
-            if (this.stringBuilder.capacity() > MAX_REUSABLE_CAPACITY) {
-                this.stringBuilder = new StringBuilder(DEFAULT_INITIAL_CAPACITY);
-            }
+        try {
+            startBuild();
+            appendLogFmtFields(logRecord);
+            return finishBuild();
+        } finally {
+            this.visitedValues.clear();
+        }
+    }
 
-            // Reset escape buffer if it grew too large
-            if (this.escapeBuffer.capacity() > ESCAPE_BUFFER_SIZE * 4) {
-                this.escapeBuffer = new StringBuilder(ESCAPE_BUFFER_SIZE);
-            }
+    /**
+     * Evaluate the given `log:PrintableRawTemplate`. Valuers and nested templates in the insertions are
+     * evaluated inline, and the insertions are masked when the masking is enabled.
+     *
+     * @param template the raw template
+     * @return the evaluated string
+     */
+    public String buildTemplate(BObject template) {
+        if (this.closed) {
+            throw ErrorCreator.createError(MASKED_STRING_BUILDER_HAS_BEEN_CLOSED);
+        }
 
-            return result;
+        try {
+            startBuild();
+            appendTemplate(template);
+            return finishBuild();
         } finally {
             this.visitedValues.clear();
         }
     }
 
-    private String buildInternal(Object value) {
+    /**
+     * Evaluate a single insertion of a `log:PrintableRawTemplate`, as it is evaluated in {@link #buildTemplate}.
+     *
+     * @param insertion the insertion
+     * @return the evaluated string
+     */
+    String buildInsertion(Object insertion) {
+        if (this.closed) {
+            throw ErrorCreator.createError(MASKED_STRING_BUILDER_HAS_BEEN_CLOSED);
+        }
+
+        try {
+            startBuild();
+            appendInsertion(insertion);
+            return finishBuild();
+        } finally {
+            this.visitedValues.clear();
+        }
+    }
+
+    private void appendTemplate(BObject template) {
+        BArray strings = template.getArrayValue(TEMPLATE_STRINGS_FIELD);
+        BArray insertions = template.getArrayValue(TEMPLATE_INSERTIONS_FIELD);
+        this.stringBuilder.append(strings.getBString(0).getValue());
+        for (int i = 1; i < strings.size(); i++) {
+            appendInsertion(insertions.get(i - 1));
+            this.stringBuilder.append(strings.getBString(i).getValue());
+        }
+    }
+
+    private void appendInsertion(Object insertion) {
+        if (insertion instanceof BObject nestedTemplate) {
+            // Only the templates can be objects, since the other insertions are valuers or anydata values
+            appendTemplate(nestedTemplate);
+            return;
+        }
+        if (insertion instanceof BFunctionPointer valuer) {
+            insertion = valuer.call(this.runtime);
+        }
+        if (this.maskingEnabled) {
+            appendValue(insertion);
+        } else {
+            this.stringBuilder.append(StringUtils.getStringValue(insertion));
+        }
+    }
+
+    /**
+     * Build a single key-value of a log event, including the separator which precedes it.
+     *
+     * @param key    the key
+     * @param value  the evaluated value
+     * @param logFmt whether the key-value is built in logfmt format, otherwise in JSON format
+     * @return the key-value fragment
+     */
+    String buildEventField(String key, Object value, boolean logFmt) {
+        if (this.closed) {
+            throw ErrorCreator.createError(MASKED_STRING_BUILDER_HAS_BEEN_CLOSED);
+        }
+
+        try {
+            startBuild();
+            appendEventField(key, value, logFmt);
+            return finishBuild();
+        } finally {
+            this.visitedValues.clear();
+        }
+    }
+
+    /**
+     * Build a log event, splicing the prepared context of the logger in between the core fields and the
+     * call-site key-values.
+     *
+     * @param logRecord the core fields of the log event
+     * @param callSite  the evaluated call-site key-values
+     * @param trailing  the tracing and observability key-values
+     * @param context   the prepared context of the logger
+     * @return the log event
+     */
+    String buildEvent(BMap<?, ?> logRecord, BMap<?, ?> callSite, BMap<?, ?> trailing, LogContext context) {
+        if (this.closed) {
+            throw ErrorCreator.createError(MASKED_STRING_BUILDER_HAS_BEEN_CLOSED);
+        }
+
+        try {
+            startBuild();
+            boolean logFmt = context.isLogFmt();
+            if (logFmt) {
+                appendLogFmtFields(logRecord);
+            } else {
+                this.stringBuilder.append('{');
+                appendLogRecordFields(logRecord);
+            }
+            if (context.collidesWith(callSite) || context.collidesWith(trailing)) {
+                appendMergedContext(callSite, trailing, context, logFmt);
+            } else {
+                appendContextSegments(context.getHeadSegments(), context, logFmt);
+                appendEventFields(callSite, logFmt);
+                appendTailSegments(context, context, logFmt);
+                appendEventFields(trailing, logFmt);
+            }
+            if (!logFmt) {
+                this.stringBuilder.append('}');
+            }
+            return finishBuild();
+        } finally {
+            this.visitedValues.clear();
+        }
+    }
+
+    private void appendLogRecordFields(BMap<?, ?> logRecord) {
+        Type recordType = getEffectiveType(TypeUtils.getType(logRecord));
+        Map<String, Field> fields = Map.of();
+        Map<String, BMap<?, ?>> fieldAnnotations = Map.of();
+        if (recordType.getTag() == TypeTags.RECORD_TYPE_TAG) {
+            fields = ((RecordType) recordType).getFields();
+            if (this.maskingEnabled) {
+                fieldAnnotations = getCachedFieldAnnotations((RecordType) recordType);
+            }
+        }
+        addRecordFields(logRecord, fields, fieldAnnotations);
+    }
+
+    private void appendContextSegments(List<Object> segments, LogContext context, boolean logFmt) {
+        for (Object segment : segments) {
+            if (segment instanceof String fragment) {
+                this.stringBuilder.append(fragment);
+            } else {
+                LogContext.Entry entry = (LogContext.Entry) segment;
+                appendEventField(entry.key(), context.evaluate(this.runtime, entry.value()), logFmt);
+            }
+        }
+    }
+
+    private void appendTailSegments(LogContext tail, LogContext context, boolean logFmt) {
+        // The tail of the parent contexts comes first
+        if (tail.getTailParent() != null) {
+            appendTailSegments(tail.getTailParent(), context, logFmt);
+        }
+        appendContextSegments(tail.getTailSegments(), context, logFmt);
+    }
+
+    private void appendEventFields(BMap<?, ?> keyValues, boolean logFmt) {
+        for (Object key : keyValues.getKeys()) {
+            appendEventField(StringUtils.getStringValue(key), keyValues.get(key), logFmt);
+        }
+    }
+
+    /**
+     * Append the context and the key-values when some of the keys are overridden. A key keeps the position
+     * of its first occurrence in the order of context head, call-site, context tail and trailing key-values,
+     * and takes the value with the highest precedence in the order of trailing, call-site and context.
+     */
+    private void appendMergedContext(BMap<?, ?> callSite, BMap<?, ?> trailing, LogContext context,
+                                     boolean logFmt) {
+        for (LogContext.Entry entry : context.getHead()) {
+            BString key = StringUtils.fromString(entry.key());
+            if (trailing.containsKey(key)) {
+                appendEventField(entry.key(), trailing.get(key), logFmt);
+            } else if (callSite.containsKey(key)) {
+                appendEventField(entry.key(), callSite.get(key), logFmt);
+            } else {
+                appendContextEntry(entry, context, logFmt);
+            }
+        }
+        for (Object key : callSite.getKeys()) {
+            String keyName = StringUtils.getStringValue(key);
+            if (!context.isHeadKey(keyName)) {
+                appendEventField(keyName, trailing.containsKey(key) ? trailing.get(key) : callSite.get(key), logFmt);
+            }
+        }
+        for (LogContext.Entry entry : context.getTail()) {
+            BString key = StringUtils.fromString(entry.key());
+            if (trailing.containsKey(key)) {
+                appendEventField(entry.key(), trailing.get(key), logFmt);
+            } else if (!callSite.containsKey(key)) {
+                appendContextEntry(entry, context, logFmt);
+            }
+        }
+        for (Object key : trailing.getKeys()) {
+            if (!callSite.containsKey(key) && !context.collidesWith(key)) {
+                appendEventField(StringUtils.getStringValue(key), trailing.get(key), logFmt);
+            }
+        }
+    }
+
+    private void appendContextEntry(LogContext.Entry entry, LogContext context, boolean logFmt) {
+        if (entry.fragment() != null) {
+            this.stringBuilder.append(entry.fragment());
+        } else {
+            appendEventField(entry.key(), context.evaluate(this.runtime, entry.value()), logFmt);
+        }
+    }
+
+    private void appendEventField(String key, Object value, boolean logFmt) {
+        if (logFmt) {
+            this.stringBuilder.append(' ').append(key).append('=');
+            appendLogFmtValue(key, value);
+        } else {
+            addDynamicFieldValue(value, false, key);
+        }
+    }
+
+    private void startBuild() {
+        this.visitedValues.clear();
+        this.stringBuilder.setLength(0);
+        this.depth = this.initialDepth;
+        this.truncated = false;
+    }
+
+    private String finishBuild() {
+        String result = this.stringBuilder.toString();
+
+        // If the builder grew too large, replace it with a smaller one for future use
+        if (this.stringBuilder.capacity() > MAX_REUSABLE_CAPACITY) {
+            this.stringBuilder = new StringBuilder(DEFAULT_INITIAL_CAPACITY);
+        }
+
+        // Reset escape buffer if it grew too large
+        if (this.escapeBuffer.capacity() > ESCAPE_BUFFER_SIZE * 4) {
+            this.escapeBuffer = new StringBuilder(ESCAPE_BUFFER_SIZE);
+        }
+
+        return result;
+    }
+
+    private void appendLogFmtFields(BMap<?, ?> logRecord) {
+        int maxEventSize = this.limits.maxEventSize();
+        boolean first = true;
+        for (Object key : logRecord.getKeys()) {
+            if (!first) {
+                if (maxEventSize >= 0 && this.stringBuilder.length() >= maxEventSize) {
+                    this.stringBuilder.append(" ...");
+                    break;
+                }
+                this.stringBuilder.append(' ');
+            }
+            first = false;
+            String fieldName = StringUtils.getStringValue(key);
+            this.stringBuilder.append(fieldName).append('=');
+            appendLogFmtValue(fieldName, logRecord.get(key));
+        }
+    }
+
+    private void appendLogFmtValue(String fieldName, Object value) {
+        switch (fieldName) {
+            case "time", "level" -> this.stringBuilder.append(StringUtils.getStringValue(value));
+            case "module" -> {
+                String module = StringUtils.getStringValue(value);
+                this.stringBuilder.append(module.isEmpty() ? "\"\"" : module);
+            }
+            case "error" -> this.stringBuilder.append(StringUtils.getExpressionStringValue(value));
+            default -> {
+                String replacement = this.maskingEnabled ? SensitiveKeyMatcher.getReplacement(fieldName) : null;
+                if (replacement != null) {
+                    appendLogFmtString(replacement, false);
+                } else if (value instanceof BString) {
+                    appendLogFmtString(StringUtils.getStringValue(value), true);
+                } else if (value != null || this.maskingEnabled) {
+                    // The unmasked string representation of nil is empty
+                    appendValue(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Append the string quoted and escaped in logfmt format.
+     */
+    private void appendLogFmtString(String value, boolean limited) {
+        int maxLength = this.limits.maxStringLength();
+        boolean truncate = limited && maxLength >= 0 && value.length() > maxLength;
+        int end = truncate ? maxLength : value.length();
+        this.stringBuilder.append('"');
+        for (int i = 0; i < end; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> this.stringBuilder.append(QUOTE_ESCAPE);
+                case '\\' -> this.stringBuilder.append(BACKSLASH_ESCAPE);
+                case '\'' -> this.stringBuilder.append(SINGLE_QUOTE_ESCAPE);
+                case '\n' -> this.stringBuilder.append(NEWLINE_ESCAPE);
+                case '\r' -> this.stringBuilder.append(CARRIAGE_RETURN_ESCAPE);
+                case '\t' -> this.stringBuilder.append(TAB_ESCAPE);
+                default -> this.stringBuilder.append(c);
+            }
+        }
+        if (truncate) {
+            this.stringBuilder.append(TRUNCATION_MARKER);
+        }
+        this.stringBuilder.append('"');
+    }
+
+    /**
+     * Append the string representation of the value to the builder. Strings and other basic
+     * values are appended without quotes.
+     */
+    private void appendValue(Object value) {
         if (value == null) {
-            return "null";
+            this.stringBuilder.append("null");
+            return;
         }
         if (isBasicType(value)) {
-            return StringUtils.getStringValue(value);
+            appendLimitedString(StringUtils.getStringValue(value));
+            return;
         }
 
         // Use identity-based checking for cycle detection
@@ -154,24 +547,30 @@ public class MaskedStringBuilder implements AutoCloseable {
         }
 
         try {
-            return processValue(value);
+            processValue(value);
         } finally {
             this.visitedValues.remove(value);
         }
     }
 
-    private String processValue(Object value) {
-        // Getting implied type to handle intersection types with readonly
-        Type type = getEffectiveType(TypeUtils.getType(value));
-
-        return switch (value) {
+    private void processValue(Object value) {
+        switch (value) {
             // Processing only the structured types, since the basic types does not contain the
             // inherent type information.
-            case BMap<?, ?> mapValue -> processMapValue(mapValue, type);
+            case BMap<?, ?> mapValue -> {
+                // Getting implied type to handle intersection types with readonly
+                processMapValue(mapValue, getEffectiveType(TypeUtils.getType(value)));
+            }
             case BTable<?, ?> tableValue -> processTableValue(tableValue);
             case BArray listValue -> processArrayValue(listValue);
-            default -> StringUtils.getStringValue(value);
-        };
+            default -> {
+                if (value instanceof BObject && !this.onStrand) {
+                    // The toString method of an object is Ballerina code
+                    throw STRAND_REQUIRED;
+                }
+                appendLimitedString(StringUtils.getStringValue(value));
+            }
+        }
     }
 
     private Type getEffectiveType(Type type) {
@@ -201,7 +600,7 @@ public class MaskedStringBuilder implements AutoCloseable {
         return type;
     }
 
-    private String processMapValue(BMap<?, ?> mapValue, Type valueType) {
+    private void processMapValue(BMap<?, ?> mapValue, Type valueType) {
         Map<String, Field> fields = Map.of();
         Map<String, BMap<?, ?>> fieldAnnotations = Map.of();
 
@@ -209,79 +608,139 @@ public class MaskedStringBuilder implements AutoCloseable {
             RecordType recType = (RecordType) valueType;
             fields = recType.getFields();
             // Use cached field annotations for better performance
-            fieldAnnotations = getCachedFieldAnnotations(recType);
+            if (this.maskingEnabled) {
+                fieldAnnotations = getCachedFieldAnnotations(recType);
+            }
         }
 
-        return processRecordValue(mapValue, fieldAnnotations, fields);
+        processRecordValue(mapValue, fieldAnnotations, fields);
     }
 
-    private String processRecordValue(BMap<?, ?> mapValue, Map<String, BMap<?, ?>> fieldAnnotations,
-                                      Map<String, Field> fields) {
-        int startPos = this.stringBuilder.length();
-
-        this.stringBuilder.append('{');
-        addRecordFields(mapValue, fields, fieldAnnotations);
-        this.stringBuilder.append('}');
-
-        String result = this.stringBuilder.substring(startPos);
-        this.stringBuilder.setLength(startPos);
-        return result;
+    private void processRecordValue(BMap<?, ?> mapValue, Map<String, BMap<?, ?>> fieldAnnotations,
+                                    Map<String, Field> fields) {
+        if (isDepthExceeded()) {
+            this.stringBuilder.append(QUOTED_TRUNCATION_MARKER);
+            return;
+        }
+        this.depth++;
+        try {
+            this.stringBuilder.append('{');
+            addRecordFields(mapValue, fields, fieldAnnotations);
+            this.stringBuilder.append('}');
+        } finally {
+            this.depth--;
+        }
     }
 
     private void addRecordFields(BMap<?, ?> mapValue, Map<String, Field> fields,
                                  Map<String, BMap<?, ?>> fieldAnnotations) {
         boolean first = true;
+        int maxElements = getElementLimit();
+        int count = 0;
 
         for (Object key : mapValue.getKeys()) {
             if (!(key instanceof BString keyStr)) {
                 continue;
             }
+            if (count == maxElements || isEventSizeExceeded()) {
+                if (!first) {
+                    this.stringBuilder.append(this.separator);
+                }
+                this.stringBuilder.append(TRUNCATED_FIELD);
+                break;
+            }
             Object fieldValue = mapValue.get(key);
             String fieldName = keyStr.getValue();
             first = fields.containsKey(fieldName) ?
                     addDefinedFieldValue(fieldAnnotations, fieldName, fieldValue, first) :
                     addDynamicFieldValue(fieldValue, first, fieldName);
+            count++;
         }
     }
 
     private boolean addDynamicFieldValue(Object fieldValue, boolean first, String fieldName) {
-        String fieldStringValue = buildInternal(fieldValue);
+        // Dynamic fields do not carry annotations, so they are masked based on the key name
+        String replacement = this.maskingEnabled ? SensitiveKeyMatcher.getReplacement(fieldName) : null;
         if (!first) {
-            this.stringBuilder.append(',');
+            this.stringBuilder.append(this.separator);
+        }
+        appendFieldName(fieldName);
+        if (replacement != null) {
+            appendQuotedString(replacement);
+        } else {
+            appendFieldValue(fieldValue);
         }
-        appendFieldToJson(fieldName, fieldStringValue, false, fieldValue);
         return false;
     }
 
     private boolean addDefinedFieldValue(Map<String, BMap<?, ?>> fieldAnnotations, String fieldName, Object fieldValue,
                                          boolean first) {
         Optional<BMap<?, ?>> annotation = getLogSensitiveDataAnnotation(fieldAnnotations, fieldName);
-        Optional<String> fieldStringValue = annotation
-                .map(fieldAnnotation -> getStringValue(fieldAnnotation, fieldValue, runtime))
-                .orElseGet(() -> Optional.of(buildInternal(fieldValue)));
+        if (annotation.isEmpty()) {
+            if (!first) {
+                this.stringBuilder.append(this.separator);
+            }
+            appendFieldName(fieldName);
+            if (this.depth == 0 && this.initialDepth < 0 && LOG_RECORD_HEADER_FIELDS.contains(fieldName)) {
+                // The time, level and module of a log record are never truncated
+                this.stringBuilder.append('"');
+                appendEscapedString(StringUtils.getStringValue(fieldValue), false);
+                this.stringBuilder.append('"');
+            } else {
+                appendFieldValue(fieldValue);
+            }
+            return false;
+        }
 
+        if (!this.onStrand && isReplacementFunction(annotation.get())) {
+            throw STRAND_REQUIRED;
+        }
+        Optional<String> fieldStringValue = getStringValue(annotation.get(), fieldValue, runtime);
         if (fieldStringValue.isPresent()) {
             if (!first) {
-                this.stringBuilder.append(',');
+                this.stringBuilder.append(this.separator);
             }
-            appendFieldToJson(fieldName, fieldStringValue.get(), annotation.isPresent(), fieldValue);
+            appendFieldName(fieldName);
+            appendQuotedString(fieldStringValue.get());
             first = false;
         }
         return first;
     }
 
     /**
-     * Append field to JSON format by writing directly to StringBuilder
-     * without creating intermediate String objects for better performance.
+     * Append the field name and the separator in JSON format.
      */
-    private void appendFieldToJson(String fieldName, String value, boolean hasAnnotation, Object fieldValue) {
+    private void appendFieldName(String fieldName) {
         this.stringBuilder.append('"');
-        appendEscapedString(fieldName);
+        appendEscapedString(fieldName, false);
         this.stringBuilder.append("\":");
-        if (hasAnnotation || fieldValue instanceof BString || fieldValue instanceof BXml) {
-            this.stringBuilder.append('"');
-            appendEscapedString(value);
-            this.stringBuilder.append('"');
+    }
+
+    /**
+     * Append a field value in JSON format by writing directly to the StringBuilder
+     * without creating intermediate String objects for better performance.
+     */
+    private void appendFieldValue(Object fieldValue) {
+        if (fieldValue instanceof BString || fieldValue instanceof BXml) {
+            appendQuotedString(StringUtils.getStringValue(fieldValue));
+        } else {
+            appendValue(fieldValue);
+        }
+    }
+
+    private void appendQuotedString(String value) {
+        this.stringBuilder.append('"');
+        appendEscapedString(value, true);
+        this.stringBuilder.append('"');
+    }
+
+    /**
+     * Append the string truncated to the maximum string length without escaping.
+     */
+    private void appendLimitedString(String value) {
+        int maxLength = this.limits.maxStringLength();
+        if (maxLength >= 0 && value.length() > maxLength) {
+            this.stringBuilder.append(value, 0, maxLength).append(TRUNCATION_MARKER);
         } else {
             this.stringBuilder.append(value);
         }
@@ -291,39 +750,44 @@ public class MaskedStringBuilder implements AutoCloseable {
      * Append escaped string directly to the main StringBuilder.
      * This avoids creating intermediate String objects for better performance.
      */
-    private void appendEscapedString(String input) {
+    private void appendEscapedString(String input, boolean limited) {
         if (input == null) {
             this.stringBuilder.append("null");
             return;
         }
 
-        if (!needsEscaping(input)) {
-            this.stringBuilder.append(input);
-            return;
-        }
-
-        for (int i = 0; i < input.length(); i++) {
-            char c = input.charAt(i);
-            switch (c) {
-                case '"' -> this.stringBuilder.append(QUOTE_ESCAPE);
-                case '\\' -> this.stringBuilder.append(BACKSLASH_ESCAPE);
-                case '\b' -> this.stringBuilder.append(BACKSPACE_ESCAPE);
-                case '\f' -> this.stringBuilder.append(FORM_FEED_ESCAPE);
-                case '\n' -> this.stringBuilder.append(NEWLINE_ESCAPE);
-                case '\r' -> this.stringBuilder.append(CARRIAGE_RETURN_ESCAPE);
-                case '\t' -> this.stringBuilder.append(TAB_ESCAPE);
-                default -> {
-                    // Escape ASCII control characters (0x00-0x1F) and DEL character (0x7F)
-                    if (c < ASCII_CONTROL_CHAR_LIMIT || c == ASCII_DEL_CHAR) {
-                        this.stringBuilder.append("\\u00");
-                        this.stringBuilder.append(HEX_CHARS[(c >>> 4) & 0xF]);
-                        this.stringBuilder.append(HEX_CHARS[c & 0xF]);
-                    } else {
-                        this.stringBuilder.append(c);
+        int maxLength = this.limits.maxStringLength();
+        boolean truncate = limited && maxLength >= 0 && input.length() > maxLength;
+        int end = truncate ? maxLength : input.length();
+        if (!needsEscaping(input, end)) {
+            this.stringBuilder.append(input, 0, end);
+        } else {
+            for (int i = 0; i < end; i++) {
+                char c = input.charAt(i);
+                switch (c) {
+                    case '"' -> this.stringBuilder.append(QUOTE_ESCAPE);
+                    case '\\' -> this.stringBuilder.append(BACKSLASH_ESCAPE);
+                    case '\b' -> this.stringBuilder.append(BACKSPACE_ESCAPE);
+                    case '\f' -> this.stringBuilder.append(FORM_FEED_ESCAPE);
+                    case '\n' -> this.stringBuilder.append(NEWLINE_ESCAPE);
+                    case '\r' -> this.stringBuilder.append(CARRIAGE_RETURN_ESCAPE);
+                    case '\t' -> this.stringBuilder.append(TAB_ESCAPE);
+                    default -> {
+                        // Escape ASCII control characters (0x00-0x1F) and DEL character (0x7F)
+                        if (c < ASCII_CONTROL_CHAR_LIMIT || c == ASCII_DEL_CHAR) {
+                            this.stringBuilder.append("\\u00");
+                            this.stringBuilder.append(HEX_CHARS[(c >>> 4) & 0xF]);
+                            this.stringBuilder.append(HEX_CHARS[c & 0xF]);
+                        } else {
+                            this.stringBuilder.append(c);
+                        }
                     }
                 }
             }
         }
+        if (truncate) {
+            this.stringBuilder.append(TRUNCATION_MARKER);
+        }
     }
 
     /**
@@ -341,69 +805,346 @@ public class MaskedStringBuilder implements AutoCloseable {
         return annotations;
     }
 
-    private String processTableValue(BTable<?, ?> tableValue) {
+    private void processTableValue(BTable<?, ?> tableValue) {
         Collection<?> values = tableValue.values();
         if (values.isEmpty()) {
-            return "[]";
+            this.stringBuilder.append("[]");
+            return;
+        }
+        if (isDepthExceeded()) {
+            this.stringBuilder.append(QUOTED_TRUNCATION_MARKER);
+            return;
         }
 
-        int startPos = this.stringBuilder.length();
-        this.stringBuilder.append('[');
+        this.depth++;
+        try {
+            this.stringBuilder.append('[');
+            int maxElements = getElementLimit();
+            int count = maxElements >= 0 ? Math.min(maxElements, values.size()) : values.size();
+            if (isParallelMaskingApplicable(count, TypeUtils.getType(tableValue))) {
+                Object[] rows = values.toArray();
+                appendElementsInParallel(i -> rows[i], count);
+                if (count < values.size()) {
+                    this.stringBuilder.append(this.separator).append(QUOTED_TRUNCATION_MARKER);
+                }
+            } else {
+                appendTableRows(values, maxElements);
+            }
+            this.stringBuilder.append(']');
+        } finally {
+            this.depth--;
+        }
+    }
 
-        boolean first = true;
+    private void appendTableRows(Collection<?> values, int maxElements) {
+        int count = 0;
         for (Object row : values) {
-            if (!first) {
-                this.stringBuilder.append(',');
+            if (count > 0) {
+                this.stringBuilder.append(this.separator);
             }
-            String elementString = buildInternal(row);
-            appendValueToArray(elementString, row);
-            first = false;
+            if (count == maxElements || isEventSizeExceeded()) {
+                this.stringBuilder.append(QUOTED_TRUNCATION_MARKER);
+                break;
+            }
+            appendValueToArray(row);
+            count++;
         }
-
-        this.stringBuilder.append(']');
-
-        String result = this.stringBuilder.substring(startPos);
-        this.stringBuilder.setLength(startPos);
-        return result;
     }
 
-    private String processArrayValue(BArray listValue) {
-        long length = listValue.getLength();
+    private void processArrayValue(BArray listValue) {
+        int length = listValue.size();
         if (listValue.isEmpty()) {
-            return "[]";
+            this.stringBuilder.append("[]");
+            return;
+        }
+        if (isDepthExceeded()) {
+            this.stringBuilder.append(QUOTED_TRUNCATION_MARKER);
+            return;
         }
 
-        int startPos = this.stringBuilder.length();
-        this.stringBuilder.append('[');
+        this.depth++;
+        try {
+            this.stringBuilder.append('[');
+            int maxElements = getElementLimit();
+            int count = maxElements >= 0 ? Math.min(maxElements, length) : length;
+            if (isParallelMaskingApplicable(count, TypeUtils.getType(listValue))) {
+                appendElementsInParallel(listValue::get, count);
+                if (count < length) {
+                    this.stringBuilder.append(this.separator).append(QUOTED_TRUNCATION_MARKER);
+                }
+            } else {
+                appendArrayElements(listValue, length, maxElements);
+            }
+            this.stringBuilder.append(']');
+        } finally {
+            this.depth--;
+        }
+    }
 
+    private void appendArrayElements(BArray listValue, int length, int maxElements) {
         // Using traditional for loop instead of for-each loop since BArray giving
         // this error: Cannot read the array length because "<local5>" is null
-        for (long i = 0; i < length; i++) {
+        for (int i = 0; i < length; i++) {
             if (i > 0) {
-                this.stringBuilder.append(',');
+                this.stringBuilder.append(this.separator);
             }
-            Object element = listValue.get(i);
-            String elementString = buildInternal(element);
-            appendValueToArray(elementString, element);
+            if (i == maxElements || isEventSizeExceeded()) {
+                this.stringBuilder.append(QUOTED_TRUNCATION_MARKER);
+                break;
+            }
+            appendValueToArray(listValue.get(i));
         }
+    }
 
-        this.stringBuilder.append(']');
+    /**
+     * Check whether the given number of members of a list or table should be masked in parallel.
+     * The event size limit depends on the size of the preceding output, hence the members are
+     * always processed sequentially when it is set. So are the members which may call Ballerina
+     * code, which has to run on the strand of the log call.
+     */
+    private boolean isParallelMaskingApplicable(int count, Type type) {
+        int threshold = parallelMaskingThreshold;
+        return threshold >= 0 && count >= threshold && count >= 2 * MIN_PARALLEL_CHUNK_SIZE &&
+                this.maskingEnabled && this.limits.maxEventSize() < 0 && !mayCallBallerinaCode(type);
+    }
 
-        String result = this.stringBuilder.substring(startPos);
-        this.stringBuilder.setLength(startPos);
-        return result;
+    /**
+     * Check whether masking the values of the given type may call Ballerina code, i.e. the
+     * replacement functions of the `@Sensitive` fields or the {@code toString} methods of objects.
+     * The types such as anydata and json, which may hold records with replacement functions, are
+     * checked on the values instead: a chunk masked off the strand of the log call which reaches
+     * such a value is masked again on the strand.
+     */
+    private boolean mayCallBallerinaCode(Type type) {
+        Boolean cached = REPLACEMENT_FUNCTION_CACHE.get(type);
+        if (cached == null) {
+            cached = mayCallBallerinaCode(type, Collections.newSetFromMap(new IdentityHashMap<>()));
+            REPLACEMENT_FUNCTION_CACHE.put(type, cached);
+        }
+        return cached;
+    }
+
+    private boolean mayCallBallerinaCode(Type type, Set<Type> visited) {
+        if (type == null) {
+            return false;
+        }
+        Type effectiveType = getEffectiveType(type);
+        if (!visited.add(effectiveType)) {
+            // Recursive types are checked once
+            return false;
+        }
+        switch (effectiveType.getTag()) {
+            case TypeTags.RECORD_TYPE_TAG -> {
+                RecordType recordType = (RecordType) effectiveType;
+                if (hasReplacementFunction(getCachedFieldAnnotations(recordType))) {
+                    return true;
+                }
+                for (Field field : recordType.getFields().values()) {
+                    if (mayCallBallerinaCode(field.getFieldType(), visited)) {
+                        return true;
+                    }
+                }
+                return mayCallBallerinaCode(recordType.getRestFieldType(), visited);
+            }
+            case TypeTags.ARRAY_TAG -> {
+                return mayCallBallerinaCode(((ArrayType) effectiveType).getElementType(), visited);
+            }
+            case TypeTags.TUPLE_TAG -> {
+                TupleType tupleType = (TupleType) effectiveType;
+                for (Type memberType : tupleType.getTupleTypes()) {
+                    if (mayCallBallerinaCode(memberType, visited)) {
+                        return true;
+                    }
+                }
+                return mayCallBallerinaCode(tupleType.getRestType(), visited);
+            }
+            case TypeTags.MAP_TAG -> {
+                return mayCallBallerinaCode(((MapType) effectiveType).getConstrainedType(), visited);
+            }
+            case TypeTags.TABLE_TAG -> {
+                return mayCallBallerinaCode(((TableType) effectiveType).getConstrainedType(), visited);
+            }
+            case TypeTags.UNION_TAG -> {
+                for (Type memberType : ((UnionType) effectiveType).getMemberTypes()) {
+                    if (mayCallBallerinaCode(memberType, visited)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case TypeTags.INT_TAG, TypeTags.SIGNED32_INT_TAG, TypeTags.SIGNED16_INT_TAG, TypeTags.SIGNED8_INT_TAG,
+                 TypeTags.UNSIGNED32_INT_TAG, TypeTags.UNSIGNED16_INT_TAG, TypeTags.UNSIGNED8_INT_TAG,
+                 TypeTags.BYTE_TAG, TypeTags.FLOAT_TAG, TypeTags.DECIMAL_TAG, TypeTags.STRING_TAG,
+                 TypeTags.CHAR_STRING_TAG, TypeTags.BOOLEAN_TAG, TypeTags.NULL_TAG, TypeTags.FINITE_TYPE_TAG,
+                 TypeTags.NEVER_TAG, TypeTags.XML_TAG, TypeTags.XML_ELEMENT_TAG, TypeTags.XML_COMMENT_TAG,
+                 TypeTags.XML_PI_TAG, TypeTags.XML_TEXT_TAG, TypeTags.ERROR_TAG, TypeTags.TYPEDESC_TAG,
+                 TypeTags.HANDLE_TAG, TypeTags.FUNCTION_POINTER_TAG -> {
+                // Masked without calling Ballerina code
+                return false;
+            }
+            case TypeTags.ANYDATA_TAG, TypeTags.JSON_TAG, TypeTags.READONLY_TAG, TypeTags.ANY_TAG -> {
+                // Checked on the values, see buildChunk
+                return false;
+            }
+            default -> {
+                // The object and service types, as well as any other type
+                return true;
+            }
+        }
+    }
+
+    private static boolean hasReplacementFunction(Map<String, BMap<?, ?>> fieldAnnotations) {
+        for (BMap<?, ?> fieldAnnotationMap : fieldAnnotations.values()) {
+            for (Object key : fieldAnnotationMap.getKeys()) {
+                if (key instanceof BString bStringKey && bStringKey.getValue().endsWith(SENSITIVE_SUFFIX) &&
+                        bStringKey.getValue().startsWith(LOG_ANNOTATION_PREFIX) &&
+                        fieldAnnotationMap.get(key) instanceof BMap<?, ?> annotation &&
+                        isReplacementFunction(annotation)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isReplacementFunction(BMap<?, ?> annotation) {
+        return annotation.get(STRATEGY_KEY) instanceof BMap<?, ?> replacementMap &&
+                replacementMap.get(REPLACEMENT_KEY) instanceof BFunctionPointer;
+    }
+
+    /**
+     * Mask the first {@code count} members in chunks on the masking executor and append the results
+     * in order. Each chunk is processed by its own builder which knows the values currently being
+     * processed, so that the cyclic references are detected as in the sequential path. The chunks
+     * which the executor cannot take, when its queue is full or it has been shut down, are masked
+     * by the calling thread, and so are the chunks which reach a value calling Ballerina code.
+     */
+    private void appendElementsInParallel(IntFunction<Object> elements, int count) {
+        int chunkCount = Math.min(PARALLEL_MASKING_THREADS * 2, count / MIN_PARALLEL_CHUNK_SIZE);
+        int chunkSize = (count + chunkCount - 1) / chunkCount;
+        int chunkDepth = this.depth;
+        IdentityHashMap<Object, Boolean> ancestors = new IdentityHashMap<>(this.visitedValues);
+        Thread strandThread = Thread.currentThread();
+        ThreadPoolExecutor executor = getMaskingExecutor();
+        List<Supplier<String>> tasks = new ArrayList<>(chunkCount);
+        List<Future<String>> chunks = new ArrayList<>(chunkCount);
+        for (int from = 0; from < count; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, count);
+            Supplier<String> task = () -> {
+                boolean onStrand = Thread.currentThread() == strandThread;
+                try (MaskedStringBuilder builder = new MaskedStringBuilder(this.runtime,
+                        (end - start) * CHUNK_CAPACITY_PER_ELEMENT, true, this.separator, this.limits,
+                        chunkDepth, onStrand)) {
+                    String chunk = builder.buildChunk(elements, start, end, ancestors);
+                    if (!onStrand) {
+                        PARALLEL_MASKED_CHUNKS.incrementAndGet();
+                    }
+                    return chunk;
+                }
+            };
+            FutureTask<String> chunk = new FutureTask<>(task::get);
+            tasks.add(task);
+            chunks.add(chunk);
+            try {
+                if (executor == null) {
+                    throw new RejectedExecutionException();
+                }
+                executor.execute(chunk);
+            } catch (RejectedExecutionException e) {
+                chunk.run();
+            }
+        }
+
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                this.stringBuilder.append(this.separator);
+            }
+            this.stringBuilder.append(joinChunk(chunks, tasks, i));
+        }
+    }
+
+    private static String joinChunk(List<Future<String>> chunks, List<Supplier<String>> tasks, int index) {
+        try {
+            return chunks.get(index).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() == STRAND_REQUIRED) {
+                // The chunks are joined in order, hence the replacement functions are called in order
+                return runOnStrand(chunks, tasks.get(index));
+            }
+            cancelChunks(chunks);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                // Propagates the errors such as the cyclic reference error as they are
+                throw runtimeException;
+            }
+            throw ErrorCreator.createError(StringUtils.fromString("Failed to mask the value: " +
+                    e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+            cancelChunks(chunks);
+            Thread.currentThread().interrupt();
+            throw ErrorCreator.createError(StringUtils.fromString("Interrupted while masking the value"));
+        }
     }
 
-    private void appendValueToArray(String value, Object originalValue) {
-        if (originalValue instanceof BString) {
-            this.stringBuilder.append('"');
-            appendEscapedString(value);
-            this.stringBuilder.append('"');
+    private static String runOnStrand(List<Future<String>> chunks, Supplier<String> task) {
+        try {
+            return task.get();
+        } catch (RuntimeException e) {
+            cancelChunks(chunks);
+            throw e;
+        }
+    }
+
+    private static void cancelChunks(List<Future<String>> chunks) {
+        for (Future<String> chunk : chunks) {
+            chunk.cancel(false);
+        }
+    }
+
+    private String buildChunk(IntFunction<Object> elements, int from, int to,
+                              IdentityHashMap<Object, Boolean> ancestors) {
+        this.visitedValues.putAll(ancestors);
+        this.depth = this.initialDepth;
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                this.stringBuilder.append(this.separator);
+            }
+            appendValueToArray(elements.apply(i));
+        }
+        return this.stringBuilder.toString();
+    }
+
+    private void appendValueToArray(Object value) {
+        // JSON strings are always quoted, whereas the masked representation keeps XML values unquoted
+        if (value instanceof BString || (!this.maskingEnabled && value instanceof BXml)) {
+            appendQuotedString(StringUtils.getStringValue(value));
         } else {
-            this.stringBuilder.append(value);
+            appendValue(value);
         }
     }
 
+    private boolean isDepthExceeded() {
+        int maxDepth = this.limits.maxDepth();
+        return maxDepth >= 0 && this.depth >= maxDepth;
+    }
+
+    /**
+     * Get the maximum number of elements to serialize from the collection being processed.
+     * The limit does not apply to the outermost value when it is serialized at a negative
+     * initial depth, i.e. the log record itself.
+     */
+    private int getElementLimit() {
+        return this.depth > 0 ? this.limits.maxCollectionElements() : -1;
+    }
+
+    private boolean isEventSizeExceeded() {
+        if (!this.truncated) {
+            int maxEventSize = this.limits.maxEventSize();
+            this.truncated = maxEventSize >= 0 && this.stringBuilder.length() >= maxEventSize;
+        }
+        return this.truncated;
+    }
+
     /**
      * Check if a value is a basic type that doesn't need complex processing.
      */
@@ -415,8 +1156,8 @@ public class MaskedStringBuilder implements AutoCloseable {
      * Quick check if a string needs JSON escaping.
      * This avoids unnecessary StringBuilder allocation for clean strings.
      */
-    private static boolean needsEscaping(String input) {
-        for (int i = 0; i < input.length(); i++) {
+    private static boolean needsEscaping(String input, int end) {
+        for (int i = 0; i < end; i++) {
             char c = input.charAt(i);
             // Check for quote, backslash, control characters (0x00-0x1F), or DEL character (0x7F)
             if (c == '"' || c == '\\' || (c & 0xFFE0) == 0 || c == ASCII_DEL_CHAR) {
@@ -504,6 +1245,106 @@ public class MaskedStringBuilder implements AutoCloseable {
         return new MaskedStringBuilder(runtime, initialCapacity);
     }
 
+    /**
+     * Create a new MaskedStringBuilder instance which builds log events with the prepared context of a
+     * logger. The serialization limits are not applied to such log events.
+     *
+     * @param runtime        the Ballerina runtime
+     * @param maskingEnabled whether the sensitive data masking is applied
+     * @param separator      the separator used between the elements of the structured values
+     * @return a new MaskedStringBuilder instance
+     */
+    static MaskedStringBuilder createEvent(Runtime runtime, boolean maskingEnabled, String separator) {
+        return new MaskedStringBuilder(runtime, DEFAULT_INITIAL_CAPACITY, maskingEnabled, separator,
+                SerializationLimits.UNLIMITED, 0, true);
+    }
+
+    /**
+     * Create a new MaskedStringBuilder instance which evaluates raw templates.
+     *
+     * @param runtime        the Ballerina runtime
+     * @param maskingEnabled whether the insertions are masked
+     * @return a new MaskedStringBuilder instance
+     */
+    static MaskedStringBuilder createTemplate(Runtime runtime, boolean maskingEnabled) {
+        return new MaskedStringBuilder(runtime, DEFAULT_INITIAL_CAPACITY, maskingEnabled, DEFAULT_SEPARATOR,
+                SerializationLimits.UNLIMITED, 0, true);
+    }
+
+    /**
+     * Create a new MaskedStringBuilder instance which builds the logfmt representation of the log
+     * records, applying the configured serialization limits.
+     *
+     * @param runtime        the Ballerina runtime
+     * @param maskingEnabled whether the sensitive data masking is applied
+     * @return a new MaskedStringBuilder instance
+     */
+    static MaskedStringBuilder createLogFmt(Runtime runtime, boolean maskingEnabled) {
+        return new MaskedStringBuilder(runtime, DEFAULT_INITIAL_CAPACITY, maskingEnabled, DEFAULT_SEPARATOR,
+                SerializationLimits.getConfigured(), 0, true);
+    }
+
+    /**
+     * Get the number of the chunks masked on the masking executor since the program started.
+     *
+     * @return the number of the chunks
+     */
+    public static long getParallelMaskedChunks() {
+        return PARALLEL_MASKED_CHUNKS.get();
+    }
+
+    /**
+     * Initialize the minimum number of members of a list or table value to be masked in parallel.
+     * Called once from the module init.
+     *
+     * @param threshold the threshold, or a negative value to disable the parallel masking
+     */
+    public static void initParallelMasking(long threshold) {
+        parallelMaskingThreshold = threshold < 0 ? -1 : (int) Math.min(threshold, Integer.MAX_VALUE);
+    }
+
+    private static synchronized ThreadPoolExecutor getMaskingExecutor() {
+        if (maskingExecutor == null && !maskingExecutorShutdown) {
+            AtomicInteger threadCount = new AtomicInteger();
+            maskingExecutor = new ThreadPoolExecutor(PARALLEL_MASKING_THREADS, PARALLEL_MASKING_THREADS, 60,
+                    TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_CHUNKS), task -> {
+                        Thread thread = new Thread(task, "ballerina-log-masking-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            maskingExecutor.allowCoreThreadTimeOut(true);
+        }
+        return maskingExecutor;
+    }
+
+    /**
+     * Shut down the executor of the parallel masking. The lists and tables logged afterwards are
+     * masked by the calling thread. Called when the program exits.
+     */
+    static synchronized void shutdownParallelMasking() {
+        maskingExecutorShutdown = true;
+        if (maskingExecutor != null) {
+            maskingExecutor.shutdown();
+            maskingExecutor = null;
+        }
+    }
+
+    /**
+     * Create a new MaskedStringBuilder instance which applies the configured serialization limits.
+     *
+     * @param runtime        the Ballerina runtime
+     * @param maskingEnabled whether the sensitive data masking is applied
+     * @param separator      the separator used between the elements of the structured values
+     * @param logRecord      whether the built values are log records, whose own fields are not counted
+     *                       towards the depth and collection element limits
+     * @return a new MaskedStringBuilder instance
+     */
+    static MaskedStringBuilder createBounded(Runtime runtime, boolean maskingEnabled, String separator,
+                                             boolean logRecord) {
+        return new MaskedStringBuilder(runtime, DEFAULT_INITIAL_CAPACITY, maskingEnabled, separator,
+                SerializationLimits.getConfigured(), logRecord ? -1 : 0, true);
+    }
+
     static Optional<BMap<?, ?>> getLogSensitiveDataAnnotation(Map<String, BMap<?, ?>> fieldAnnotations,
                                                               String fieldName) {
         // In the value map keys are unescaped, but the annotation keys are escaped
@@ -573,6 +1414,16 @@ public class MaskedStringBuilder implements AutoCloseable {
         return Optional.of(StringUtils.getStringValue(realValue));
     }
 
+    /**
+     * Signals that a chunk masked off the strand of the log call reached a value which calls Ballerina
+     * code. A single instance without a stack trace is used, since it only reschedules the chunk.
+     */
+    private static final class StrandRequiredException extends RuntimeException {
+        private StrandRequiredException() {
+            super(null, null, false, false);
+        }
+    }
+
     /**
      * Thread-safe LRU cache implementation using HashMap + Doubly Linked List.
      *
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A pre-allocated direct memory arena, which keeps the buffered log events off the heap. The arena is split into
+ * segments of a fixed size, which are used as a ring: the log events are appended to the open segment, and a
+ * segment goes back to the ring of free segments once all the log events in it are written or dropped. A log
+ * event is never split across segments.
+ * <p>
+ * The arena is guarded by the lock of its stripe of the {@link ConsoleWriter}, other than the reads of the sealed
+ * segments, which are not written to until they are released.
+ *
+ * @since 2.17.0
+ */
+class OffHeapArena {
+
+    private final ByteBuffer memory;
+    private final int segmentSize;
+    // Number of bytes of the live log events in each segment
+    private final int[] liveBytes;
+    // Ring of the free segments, in the order in which they are reused
+    private final int[] freeSegments;
+    private int freeHead = 0;
+    private int freeCount;
+    // Segment to which the log events are appended, -1 if there is none
+    private int openSegment = -1;
+    private int openOffset = 0;
+
+    OffHeapArena(int segmentCount, int segmentSize) {
+        this.memory = ByteBuffer.allocateDirect(segmentCount * segmentSize);
+        this.segmentSize = segmentSize;
+        this.liveBytes = new int[segmentCount];
+        this.freeSegments = new int[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            freeSegments[i] = i;
+        }
+        this.freeCount = segmentCount;
+    }
+
+    boolean hasRoom(int length) {
+        return (openSegment >= 0 && openOffset + length <= segmentSize) || freeCount > 0;
+    }
+
+    /**
+     * Copy a log event into the arena. The caller checks that the arena has room for it.
+     *
+     * @param line the encoded log event, not longer than a segment
+     * @return the position of the log event in the arena
+     */
+    int store(byte[] line) {
+        if (openSegment < 0 || openOffset + line.length > segmentSize) {
+            seal();
+            openSegment = freeSegments[freeHead];
+            freeHead = (freeHead + 1) % freeSegments.length;
+            freeCount--;
+            openOffset = 0;
+        }
+        int position = openSegment * segmentSize + openOffset;
+        memory.put(position, line);
+        openOffset += line.length;
+        liveBytes[openSegment] += line.length;
+        return position;
+    }
+
+    void read(int position, byte[] destination, int offset, int length) {
+        memory.get(position, destination, offset, length);
+    }
+
+    // A view of the bytes of a log event, which shares the memory of the arena
+    ByteBuffer slice(int position, int length) {
+        return memory.slice(position, length);
+    }
+
+    /**
+     * Release the space of a log event, which is written or dropped.
+     *
+     * @param position the position of the log event in the arena
+     * @param length   the length of the log event
+     */
+    void release(int position, int length) {
+        int segment = position / segmentSize;
+        liveBytes[segment] -= length;
+        if (liveBytes[segment] == 0) {
+            if (segment == openSegment) {
+                // The open segment is empty once all the log events appended to it are dropped
+                openOffset = 0;
+            } else {
+                free(segment);
+            }
+        }
+    }
+
+    /**
+     * Close the open segment, so that the log events which follow are appended to another segment while the
+     * log events in it are being written.
+     */
+    void seal() {
+        if (openSegment >= 0 && liveBytes[openSegment] == 0) {
+            free(openSegment);
+        }
+        openSegment = -1;
+    }
+
+    int capacity() {
+        return freeSegments.length * segmentSize;
+    }
+
+    int usedBytes() {
+        return (freeSegments.length - freeCount) * segmentSize;
+    }
+
+    private void free(int segment) {
+        freeSegments[(freeHead + freeCount) % freeSegments.length] = segment;
+        freeCount++;
+    }
+}
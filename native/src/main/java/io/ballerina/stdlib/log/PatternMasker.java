@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Masks sensitive substrings of free-text log values using a set of configured patterns.
+ * All literal patterns are compiled into a single Aho-Corasick automaton and all regular expressions
+ * are compiled into a single alternation, so each value is scanned once per engine irrespective of
+ * the number of configured patterns.
+ * <p>
+ * Of the overlapping matches, the leftmost one is masked, then the longest one, then the first configured one.
+ * The regular expressions are the alternatives of a single expression though, which yields at most one match
+ * at each position: the first configured regular expression which matches there, as with the {@code |}
+ * operator, even if a later one matches a longer text.
+ *
+ * @since 2.17.0
+ */
+public class PatternMasker {
+
+    private static final BString PATTERN_KEY = StringUtils.fromString("pattern");
+    private static final BString TYPE_KEY = StringUtils.fromString("type");
+    private static final BString REPLACEMENT_KEY = StringUtils.fromString("replacement");
+    private static final String REGEX_TYPE = "REGEX";
+    private static final String GROUP_PREFIX = "blogmask";
+
+    // Ordering used to resolve overlapping matches: leftmost first, then longest, then first configured. Only the
+    // literals can yield more than one match at a position
+    private static final Comparator<Match> MATCH_ORDER = Comparator.comparingInt((Match m) -> m.start)
+            .thenComparing(Comparator.comparingInt((Match m) -> m.end).reversed())
+            .thenComparingInt(m -> m.patternIndex);
+
+    private static volatile PatternMasker instance = null;
+
+    private final AhoCorasick literals;
+    private final Pattern regex;
+    private final String[] regexReplacements;
+    private final int[] regexPatternIndexes;
+
+    private PatternMasker(AhoCorasick literals, Pattern regex, String[] regexReplacements,
+                          int[] regexPatternIndexes) {
+        this.literals = literals;
+        this.regex = regex;
+        this.regexReplacements = regexReplacements;
+        this.regexPatternIndexes = regexPatternIndexes;
+    }
+
+    /**
+     * Compile the configured masking patterns. Called once from the module init.
+     *
+     * @param patterns the configured `log:MaskingPattern` records
+     * @return a BError if a pattern is invalid, null otherwise
+     */
+    public static Object initMaskingPatterns(BArray patterns) {
+        if (patterns.isEmpty()) {
+            instance = null;
+            return null;
+        }
+        List<String> literalPatterns = new ArrayList<>();
+        List<String> literalReplacements = new ArrayList<>();
+        List<Integer> literalIndexes = new ArrayList<>();
+        StringBuilder combinedRegex = new StringBuilder();
+        // Number of capturing groups in the combined regular expression so far
+        int groupCount = 0;
+        List<String> regexReplacements = new ArrayList<>();
+        List<Integer> regexIndexes = new ArrayList<>();
+
+        for (int i = 0; i < patterns.size(); i++) {
+            BMap<?, ?> pattern = (BMap<?, ?>) patterns.get(i);
+            String value = pattern.getStringValue(PATTERN_KEY).getValue();
+            String replacement = pattern.getStringValue(REPLACEMENT_KEY).getValue();
+            if (value.isEmpty()) {
+                return ErrorCreator.createError(StringUtils.fromString(
+                        "Invalid masking pattern configuration: pattern cannot be empty"));
+            }
+            if (REGEX_TYPE.equals(pattern.getStringValue(TYPE_KEY).getValue())) {
+                int patternGroupCount;
+                try {
+                    patternGroupCount = Pattern.compile(value).matcher("").groupCount();
+                } catch (PatternSyntaxException e) {
+                    return ErrorCreator.createError(StringUtils.fromString(
+                            "Invalid masking pattern configuration: " + e.getDescription() + ": " + value));
+                }
+                if (!regexReplacements.isEmpty()) {
+                    combinedRegex.append('|');
+                }
+                // The groups of the pattern follow the groups of the preceding patterns and its own group
+                combinedRegex.append("(?<").append(GROUP_PREFIX).append(regexReplacements.size()).append('>')
+                        .append(shiftBackReferences(value, groupCount + 1)).append(')');
+                groupCount += patternGroupCount + 1;
+                regexReplacements.add(replacement);
+                regexIndexes.add(i);
+            } else {
+                literalPatterns.add(value);
+                literalReplacements.add(replacement);
+                literalIndexes.add(i);
+            }
+        }
+
+        AhoCorasick literals = literalPatterns.isEmpty() ? null :
+                new AhoCorasick(literalPatterns, literalReplacements, literalIndexes);
+        Pattern regex;
+        try {
+            regex = regexReplacements.isEmpty() ? null : Pattern.compile(combinedRegex.toString());
+        } catch (PatternSyntaxException e) {
+            // Such as the same named group in more than one pattern
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "Invalid masking pattern configuration: " + e.getDescription()));
+        }
+        instance = new PatternMasker(literals, regex, regexReplacements.toArray(new String[0]),
+                regexIndexes.stream().mapToInt(Integer::intValue).toArray());
+        return null;
+    }
+
+    /**
+     * Shift the numbered back references of a regular expression by the number of capturing groups which precede
+     * it in the combined regular expression. A back reference takes as many digits as there are groups before it,
+     * as in {@link Pattern}, and is wrapped in a non-capturing group, so that the digits which follow it are not
+     * taken as a part of the shifted reference.
+     */
+    static String shiftBackReferences(String regex, int offset) {
+        StringBuilder shifted = new StringBuilder(regex.length());
+        int groups = 0;
+        int classDepth = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length()) {
+                char next = regex.charAt(i + 1);
+                int end = i + 2;
+                if (next == 'Q') {
+                    // Quoted up to the next \E, or to the end
+                    int quoteEnd = regex.indexOf("\\E", end);
+                    end = quoteEnd < 0 ? regex.length() : quoteEnd + 2;
+                } else if (classDepth == 0 && next >= '1' && next <= '9') {
+                    int reference = next - '0';
+                    while (end < regex.length() && isAsciiDigit(regex.charAt(end)) &&
+                            reference * 10 + (regex.charAt(end) - '0') <= groups) {
+                        reference = reference * 10 + (regex.charAt(end) - '0');
+                        end++;
+                    }
+                    shifted.append("(?:\\").append(reference + offset).append(')');
+                    i = end;
+                    continue;
+                }
+                shifted.append(regex, i, end);
+                i = end;
+                continue;
+            }
+            if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (c == '(' && classDepth == 0 && isCapturingGroup(regex, i)) {
+                groups++;
+            }
+            shifted.append(c);
+            i++;
+        }
+        return shifted.toString();
+    }
+
+    private static boolean isCapturingGroup(String regex, int index) {
+        if (index + 1 >= regex.length() || regex.charAt(index + 1) != '?') {
+            return true;
+        }
+        // A named group, as opposed to a lookbehind
+        return index + 3 < regex.length() && regex.charAt(index + 2) == '<' &&
+                Character.isLetter(regex.charAt(index + 3));
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Mask all occurrences of the configured patterns in the given value.
+     *
+     * @param value the value to be masked
+     * @return the masked value, or the same value if nothing matched
+     */
+    public static BString maskPatterns(BString value) {
+        PatternMasker masker = instance;
+        if (masker == null) {
+            return value;
+        }
+        String input = value.getValue();
+        String masked = masker.mask(input);
+        return masked == input ? value : StringUtils.fromString(masked);
+    }
+
+    /**
+     * Check whether any masking patterns are configured.
+     *
+     * @return true if the masking patterns are configured, false otherwise
+     */
+    static boolean hasPatterns() {
+        return instance != null;
+    }
+
+    String mask(String input) {
+        List<Match> matches = null;
+        if (this.literals != null) {
+            matches = this.literals.findAll(input, null);
+        }
+        if (this.regex != null) {
+            matches = findRegexMatches(input, matches);
+        }
+        if (matches == null) {
+            return input;
+        }
+        matches.sort(MATCH_ORDER);
+
+        StringBuilder builder = new StringBuilder(input.length());
+        int position = 0;
+        for (Match match : matches) {
+            if (match.start < position) {
+                // Overlaps with a match which has already been replaced
+                continue;
+            }
+            builder.append(input, position, match.start).append(match.replacement);
+            position = match.end;
+        }
+        builder.append(input, position, input.length());
+        return builder.toString();
+    }
+
+    private List<Match> findRegexMatches(String input, List<Match> matches) {
+        Matcher matcher = this.regex.matcher(input);
+        while (matcher.find()) {
+            if (matcher.end() == matcher.start()) {
+                // Ignore empty matches, they do not mask anything
+                continue;
+            }
+            int group = 0;
+            while (group < this.regexReplacements.length - 1 && matcher.start(GROUP_PREFIX + group) < 0) {
+                group++;
+            }
+            if (matches == null) {
+                matches = new ArrayList<>();
+            }
+            matches.add(new Match(matcher.start(), matcher.end(), this.regexReplacements[group],
+                    this.regexPatternIndexes[group]));
+        }
+        return matches;
+    }
+
+    private record Match(int start, int end, String replacement, int patternIndex) {
+    }
+
+    /**
+     * Aho-Corasick automaton for matching a set of literal patterns in a single scan. Transitions for ASCII
+     * characters are precomputed into a table so that the common case never follows failure links.
+     */
+    private static class AhoCorasick {
+        private static final int ASCII_LIMIT = 128;
+
+        private final int[][] asciiTransitions;
+        private final List<Map<Character, Integer>> transitions;
+        private final int[] failures;
+        // Index of the pattern ending at each state (the first configured one), or -1
+        private final int[] outputs;
+        // Nearest state on the failure chain which has an output, or -1
+        private final int[] outputLinks;
+        private final int[] lengths;
+        private final String[] replacements;
+        private final int[] patternIndexes;
+
+        AhoCorasick(List<String> patterns, List<String> replacements, List<Integer> patternIndexes) {
+            this.lengths = new int[patterns.size()];
+            this.replacements = replacements.toArray(new String[0]);
+            this.patternIndexes = patternIndexes.stream().mapToInt(Integer::intValue).toArray();
+
+            // Build the trie of all the patterns
+            this.transitions = new ArrayList<>();
+            List<Integer> patternEnds = new ArrayList<>();
+            this.transitions.add(new HashMap<>());
+            patternEnds.add(-1);
+            for (int i = 0; i < patterns.size(); i++) {
+                String pattern = patterns.get(i);
+                this.lengths[i] = pattern.length();
+                int state = 0;
+                for (int j = 0; j < pattern.length(); j++) {
+                    Integer next = this.transitions.get(state).get(pattern.charAt(j));
+                    if (next == null) {
+                        next = this.transitions.size();
+                        this.transitions.add(new HashMap<>());
+                        patternEnds.add(-1);
+                        this.transitions.get(state).put(pattern.charAt(j), next);
+                    }
+                    state = next;
+                }
+                if (patternEnds.get(state) < 0) {
+                    patternEnds.set(state, i);
+                }
+            }
+
+            int stateCount = this.transitions.size();
+            this.failures = new int[stateCount];
+            this.outputs = patternEnds.stream().mapToInt(Integer::intValue).toArray();
+            this.outputLinks = new int[stateCount];
+            this.asciiTransitions = new int[stateCount][ASCII_LIMIT];
+            buildFailureLinks();
+        }
+
+        private void buildFailureLinks() {
+            Queue<Integer> queue = new ArrayDeque<>();
+            this.outputLinks[0] = -1;
+            for (Map.Entry<Character, Integer> transition : this.transitions.get(0).entrySet()) {
+                this.outputLinks[transition.getValue()] = -1;
+                queue.add(transition.getValue());
+                if (transition.getKey() < ASCII_LIMIT) {
+                    this.asciiTransitions[0][transition.getKey()] = transition.getValue();
+                }
+            }
+            // States are visited in breadth-first order, so the failure state is always complete
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                int failure = this.failures[state];
+                for (int c = 0; c < ASCII_LIMIT; c++) {
+                    Integer next = this.transitions.get(state).get((char) c);
+                    this.asciiTransitions[state][c] = next != null ? next : this.asciiTransitions[failure][c];
+                }
+                for (Map.Entry<Character, Integer> transition : this.transitions.get(state).entrySet()) {
+                    int child = transition.getValue();
+                    int childFailure = next(failure, transition.getKey());
+                    this.failures[child] = childFailure;
+                    this.outputLinks[child] = this.outputs[childFailure] >= 0 ? childFailure :
+                            this.outputLinks[childFailure];
+                    queue.add(child);
+                }
+            }
+        }
+
+        private int next(int state, char c) {
+            if (c < ASCII_LIMIT) {
+                return this.asciiTransitions[state][c];
+            }
+            Integer next = this.transitions.get(state).get(c);
+            while (next == null && state != 0) {
+                state = this.failures[state];
+                next = this.transitions.get(state).get(c);
+            }
+            return next == null ? 0 : next;
+        }
+
+        List<Match> findAll(String input, List<Match> matches) {
+            int state = 0;
+            for (int i = 0; i < input.length(); i++) {
+                state = next(state, input.charAt(i));
+                int outputState = this.outputs[state] >= 0 ? state : this.outputLinks[state];
+                while (outputState >= 0) {
+                    int pattern = this.outputs[outputState];
+                    if (matches == null) {
+                        matches = new ArrayList<>();
+                    }
+                    matches.add(new Match(i + 1 - this.lengths[pattern], i + 1, this.replacements[pattern],
+                            this.patternIndexes[pattern]));
+                    outputState = this.outputLinks[outputState];
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Matches key names against the configured set of sensitive keys, so that values of open maps and
+ * log key-values can be masked without annotations. Each check costs a single hash lookup.
+ *
+ * @since 2.17.0
+ */
+public class SensitiveKeyMatcher {
+
+    private static final BString KEYS_KEY = StringUtils.fromString("keys");
+    private static final BString CASE_INSENSITIVE_KEY = StringUtils.fromString("caseInsensitive");
+    private static final BString REPLACEMENT_KEY = StringUtils.fromString("replacement");
+
+    private static volatile SensitiveKeyMatcher instance = null;
+
+    private final Set<String> keys;
+    private final boolean caseInsensitive;
+    private final String replacement;
+
+    private SensitiveKeyMatcher(Set<String> keys, boolean caseInsensitive, String replacement) {
+        this.keys = keys;
+        this.caseInsensitive = caseInsensitive;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Initialize the sensitive key set. Called once from the module init.
+     *
+     * @param config the configured `log:SensitiveKeysConfig` record
+     */
+    public static void initSensitiveKeys(BMap<BString, Object> config) {
+        BArray configuredKeys = (BArray) config.get(KEYS_KEY);
+        if (configuredKeys.isEmpty()) {
+            instance = null;
+            return;
+        }
+        boolean caseInsensitive = (Boolean) config.get(CASE_INSENSITIVE_KEY);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < configuredKeys.size(); i++) {
+            String key = configuredKeys.getBString(i).getValue();
+            keys.add(caseInsensitive ? key.toLowerCase(Locale.ROOT) : key);
+        }
+        instance = new SensitiveKeyMatcher(keys, caseInsensitive,
+                config.getStringValue(REPLACEMENT_KEY).getValue());
+    }
+
+    /**
+     * Get the replacement for the value of the given key, if the key is a sensitive key.
+     *
+     * @param key the key name
+     * @return the replacement string, or null if the key is not sensitive
+     */
+    static String getReplacement(String key) {
+        SensitiveKeyMatcher matcher = instance;
+        if (matcher == null) {
+            return null;
+        }
+        // toLowerCase returns the same instance when the key is already in lower case
+        String lookupKey = matcher.caseInsensitive ? key.toLowerCase(Locale.ROOT) : key;
+        return matcher.keys.contains(lookupKey) ? matcher.replacement : null;
+    }
+}
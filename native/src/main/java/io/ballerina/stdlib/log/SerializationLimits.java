@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+/**
+ * Limits applied while serializing log values. A negative limit means the limit is disabled.
+ *
+ * @param maxStringLength       maximum number of characters serialized from a string value
+ * @param maxCollectionElements maximum number of elements serialized from a list, map or table
+ * @param maxDepth              maximum nesting depth of serialized structured values
+ * @param maxEventSize          maximum number of characters of a serialized log event
+ * @since 2.17.0
+ */
+public record SerializationLimits(int maxStringLength, int maxCollectionElements, int maxDepth, int maxEventSize) {
+
+    static final SerializationLimits UNLIMITED = new SerializationLimits(-1, -1, -1, -1);
+
+    private static final BString MAX_STRING_LENGTH_KEY = StringUtils.fromString("maxStringLength");
+    private static final BString MAX_COLLECTION_ELEMENTS_KEY = StringUtils.fromString("maxCollectionElements");
+    private static final BString MAX_DEPTH_KEY = StringUtils.fromString("maxDepth");
+    private static final BString MAX_EVENT_SIZE_KEY = StringUtils.fromString("maxEventSize");
+
+    private static volatile SerializationLimits configured = UNLIMITED;
+
+    /**
+     * Initialize the configured serialization limits. Called once from the module init.
+     *
+     * @param config the configured `log:SerializationLimits` record
+     */
+    public static void initSerializationLimits(BMap<BString, Object> config) {
+        configured = new SerializationLimits(toLimit(config.get(MAX_STRING_LENGTH_KEY)),
+                toLimit(config.get(MAX_COLLECTION_ELEMENTS_KEY)), toLimit(config.get(MAX_DEPTH_KEY)),
+                toLimit(config.get(MAX_EVENT_SIZE_KEY)));
+    }
+
+    static SerializationLimits getConfigured() {
+        return configured;
+    }
+
+    private static int toLimit(Object value) {
+        long limit = (Long) value;
+        return limit < 0 ? -1 : (int) Math.min(limit, Integer.MAX_VALUE);
+    }
+}
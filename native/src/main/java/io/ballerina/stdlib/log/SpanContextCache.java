@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.observability.ObserveUtils;
+import io.ballerina.runtime.observability.ObserverContext;
+
+/**
+ * Caches the observability key-values of the active span, i.e. the span context (the trace ID and the span ID)
+ * and the ICP runtime ID, so that they are extracted once per span instead of once per log event. The key-values
+ * are kept as a property of the observer context of the span, and are therefore released along with the span.
+ *
+ * @since 2.17.0
+ */
+public class SpanContextCache {
+
+    private static final String OBSERVABILITY_KEY_VALUES_PROPERTY = "ballerina.log.observabilityKeyValues";
+
+    private SpanContextCache() {
+    }
+
+    /**
+     * Get the cached observability key-values of the active span.
+     *
+     * @param env               the Ballerina environment
+     * @param noObserverContext the key-values to return if there is no observer context, hence no active span
+     * @return the immutable key-values, or null if the key-values of the active span are not cached
+     */
+    public static Object getCachedObservabilityKeyValues(Environment env, BMap<?, ?> noObserverContext) {
+        ObserverContext observerContext = ObserveUtils.getObserverContextOfCurrentFrame(env);
+        return observerContext == null ? noObserverContext :
+                observerContext.getProperty(OBSERVABILITY_KEY_VALUES_PROPERTY);
+    }
+
+    /**
+     * Cache the observability key-values of the active span. Nothing is cached if there is no active span.
+     *
+     * @param env       the Ballerina environment
+     * @param keyValues the immutable key-values
+     * @return the given key-values
+     */
+    public static BMap<?, ?> cacheObservabilityKeyValues(Environment env, BMap<?, ?> keyValues) {
+        ObserverContext observerContext = ObserveUtils.getObserverContextOfCurrentFrame(env);
+        if (observerContext != null) {
+            observerContext.addProperty(OBSERVABILITY_KEY_VALUES_PROPERTY, keyValues);
+        }
+        return keyValues;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates the stack traces of the logged errors. Each stack trace is identified by a fingerprint of its
+ * frames, and is written in full to each output only the first time it is logged to the output in each time window
+ * and after each rotation of the output. The outputs are the log files and the console, so that each log file can be
+ * read on its own. The fingerprints seen are kept in a bounded LRU map per output.
+ *
+ * @since 2.17.0
+ */
+public class StackTraceDeduplicator {
+
+    private static final BString ENABLED_KEY = StringUtils.fromString("enabled");
+    private static final BString WINDOW_KEY = StringUtils.fromString("window");
+    private static final BString MAX_ENTRIES_KEY = StringUtils.fromString("maxEntries");
+    private static final BString[] FRAME_KEYS = {StringUtils.fromString("callableName"),
+            StringUtils.fromString("moduleName"), StringUtils.fromString("fileName"),
+            StringUtils.fromString("lineNumber")};
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static volatile StackTraceDeduplicator instance = null;
+
+    private final long windowInMillis;
+    private final int maxEntries;
+    // Output (log file path, or the empty string for the console) -> fingerprint -> time at which the stack trace
+    // was last written in full to the output, in the least recently logged order
+    private final Map<String, Map<String, Long>> lastWrites = new ConcurrentHashMap<>();
+
+    private StackTraceDeduplicator(long windowInMillis, int maxEntries) {
+        this.windowInMillis = windowInMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    private Map<String, Long> createLastWrites(String output) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Initialize the stack trace deduplication. Called once from the module init.
+     *
+     * @param config the configured `log:StackTraceDeduplicationConfig` record
+     * @return a BError if the configuration is invalid, null otherwise
+     */
+    public static Object initStackTraceDeduplication(BMap<BString, Object> config) {
+        if (!(Boolean) config.get(ENABLED_KEY)) {
+            instance = null;
+            return null;
+        }
+        long window = (Long) config.get(WINDOW_KEY);
+        long maxEntries = (Long) config.get(MAX_ENTRIES_KEY);
+        if (window <= 0 || maxEntries <= 0) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "Invalid stack trace deduplication configuration: window and maxEntries should be positive"));
+        }
+        instance = new StackTraceDeduplicator(window * 1000, (int) Math.min(maxEntries, Integer.MAX_VALUE));
+        return null;
+    }
+
+    /**
+     * Get the fingerprint of a stack trace.
+     *
+     * @param stackTrace the `log:StackFrame` records of the stack trace
+     * @return the fingerprint as a hexadecimal string
+     */
+    public static BString getStackTraceId(BArray stackTrace) {
+        // 64-bit FNV-1a over the fields of all the frames
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < stackTrace.size(); i++) {
+            BMap<?, ?> frame = (BMap<?, ?>) stackTrace.get(i);
+            for (BString key : FRAME_KEYS) {
+                String value = StringUtils.getStringValue(frame.get(key));
+                for (int j = 0; j < value.length(); j++) {
+                    hash = (hash ^ value.charAt(j)) * FNV_PRIME;
+                }
+                // Separate the fields, so that adjacent fields cannot produce the same input
+                hash = (hash ^ 0xff) * FNV_PRIME;
+            }
+        }
+        return StringUtils.fromString(String.format("%016x", hash));
+    }
+
+    /**
+     * Check whether the stack trace is to be written in full to an output, and record it as written if so.
+     *
+     * @param output       the path of the log file, or the empty string for the console
+     * @param stackTraceId the fingerprint of the stack trace
+     * @return true if the stack trace has not been written to the output in the current window, false otherwise
+     */
+    public static boolean isFirstOccurrence(BString output, BString stackTraceId) {
+        StackTraceDeduplicator deduplicator = instance;
+        if (deduplicator == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Long> lastWrites = deduplicator.lastWrites.computeIfAbsent(output.getValue(),
+                deduplicator::createLastWrites);
+        synchronized (lastWrites) {
+            Long lastWrite = lastWrites.get(stackTraceId.getValue());
+            if (lastWrite != null && now - lastWrite < deduplicator.windowInMillis) {
+                return false;
+            }
+            lastWrites.put(stackTraceId.getValue(), now);
+            return true;
+        }
+    }
+
+    /**
+     * Forget the stack traces written to a log file so far, so that the rotated log file has the full stack traces.
+     *
+     * @param filePath the path of the rotated log file
+     */
+    static void reset(String filePath) {
+        StackTraceDeduplicator deduplicator = instance;
+        if (deduplicator == null) {
+            return;
+        }
+        Map<String, Long> lastWrites = deduplicator.lastWrites.get(filePath);
+        if (lastWrites == null) {
+            return;
+        }
+        synchronized (lastWrites) {
+            lastWrites.clear();
+        }
+    }
+}
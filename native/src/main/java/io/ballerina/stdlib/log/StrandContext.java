@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log;
+
+import io.ballerina.runtime.api.Environment;
+
+/**
+ * Holds the logging context of a strand. The context is an immutable map of key-values, which is replaced
+ * as a whole whenever key-values are added (copy-on-write). The context is a strand local, which is not
+ * propagated to the strands started by a strand, so each strand sets its own context.
+ *
+ * @since 2.17.0
+ */
+public class StrandContext {
+
+    private static final String STRAND_CONTEXT_KEY = "ballerina.log.strandContext";
+
+    private StrandContext() {
+    }
+
+    /**
+     * Get the logging context of the current strand.
+     *
+     * @param env the Ballerina environment
+     * @return the immutable key-values of the context, or null if no context is set
+     */
+    public static Object getStrandContext(Environment env) {
+        return env.getStrandLocal(STRAND_CONTEXT_KEY);
+    }
+
+    /**
+     * Replace the logging context of the current strand.
+     *
+     * @param env     the Ballerina environment
+     * @param context the immutable key-values of the context, or null to clear the context
+     */
+    public static void setStrandContext(Environment env, Object context) {
+        env.setStrandLocal(STRAND_CONTEXT_KEY, context);
+    }
+}
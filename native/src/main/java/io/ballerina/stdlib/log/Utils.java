@@ -22,6 +22,8 @@ import io.ballerina.runtime.api.Environment;
 import io.ballerina.runtime.api.creators.ErrorCreator;
 import io.ballerina.runtime.api.utils.IdentifierUtils;
 import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 
 import java.io.File;
@@ -108,6 +110,71 @@ public class Utils {
         }
     }
 
+    /**
+     * Serialize the log record to JSON applying the configured serialization limits.
+     *
+     * @param env                        the Ballerina environment
+     * @param logRecord                  the log record
+     * @param enableSensitiveDataMasking whether the sensitive data masking is applied
+     * @return the JSON string of the log record
+     */
+    public static BString toBoundedJsonString(Environment env, BMap<BString, Object> logRecord,
+                                              boolean enableSensitiveDataMasking) {
+        // Use the same separators as `toJsonString` when the masking is disabled
+        String separator = enableSensitiveDataMasking ? "," : ", ";
+        try (MaskedStringBuilder builder = MaskedStringBuilder.createBounded(env.getRuntime(),
+                enableSensitiveDataMasking, separator, true)) {
+            return StringUtils.fromString(builder.build(logRecord));
+        }
+    }
+
+    /**
+     * Get the string value of a key-value applying the configured serialization limits.
+     *
+     * @param env                        the Ballerina environment
+     * @param value                      the value
+     * @param enableSensitiveDataMasking whether the sensitive data masking is applied
+     * @return the string value
+     */
+    public static BString toBoundedString(Environment env, Object value, boolean enableSensitiveDataMasking) {
+        if (value == null && !enableSensitiveDataMasking) {
+            // Keep the `toString` representation of nil
+            return StringUtils.fromString(EMPTY_STRING);
+        }
+        try (MaskedStringBuilder builder = MaskedStringBuilder.createBounded(env.getRuntime(),
+                enableSensitiveDataMasking, ",", false)) {
+            return StringUtils.fromString(builder.build(value));
+        }
+    }
+
+    /**
+     * Evaluate the raw template into a single buffer.
+     *
+     * @param env                        the Ballerina environment
+     * @param template                   the `log:PrintableRawTemplate` to be evaluated
+     * @param enableSensitiveDataMasking whether the insertions are masked
+     * @return the evaluated string
+     */
+    public static BString evaluateTemplate(Environment env, BObject template, boolean enableSensitiveDataMasking) {
+        try (MaskedStringBuilder builder = MaskedStringBuilder.createTemplate(env.getRuntime(),
+                enableSensitiveDataMasking)) {
+            return StringUtils.fromString(builder.buildTemplate(template));
+        }
+    }
+
+    /**
+     * Mask and format the log record in logfmt in a single pass.
+     *
+     * @param env       the Ballerina environment
+     * @param logRecord the log record
+     * @return the masked logfmt string of the log record
+     */
+    public static BString toMaskedLogFmtString(Environment env, BMap<BString, Object> logRecord) {
+        try (MaskedStringBuilder builder = MaskedStringBuilder.createLogFmt(env.getRuntime(), true)) {
+            return StringUtils.fromString(builder.buildLogFmt(logRecord));
+        }
+    }
+
     /**
      * Get the current file size for a log file.
      * Called from Ballerina to check if size-based rotation is needed.
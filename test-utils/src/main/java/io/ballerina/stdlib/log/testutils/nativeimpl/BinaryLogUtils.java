@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.log.testutils.nativeimpl;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.log.BinaryLogDecoder;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+/**
+ * Utility functions for decoding the binary log files in tests.
+ *
+ * @since 2.17.0
+ */
+public class BinaryLogUtils {
+
+    private BinaryLogUtils() {
+    }
+
+    /**
+     * Decode a binary log file to the JSON log format.
+     *
+     * @param path The path of the binary log file
+     * @return The decoded log lines, or error if the file could not be decoded
+     */
+    public static Object decodeBinaryLog(BString path) {
+        StringWriter output = new StringWriter();
+        try (InputStream input = new BufferedInputStream(new FileInputStream(path.getValue()))) {
+            BinaryLogDecoder.decode(input, output, false);
+            return StringUtils.fromString(output.toString());
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "Failed to decode the binary log file: " + e.getMessage()));
+        }
+    }
+}